@@ -1,41 +1,96 @@
 package com.prajeev.collabboard.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import com.prajeev.collabboard.realtime.SlowConsumerGuard;
+import com.prajeev.collabboard.security.StompAdmissionInterceptor;
 import com.prajeev.collabboard.security.StompAuthChannelInterceptor;
+import com.prajeev.collabboard.security.StompErrorHandler;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private static final String[] ALLOWED_ORIGINS = {
+            "http://localhost:5173",
+            "http://127.0.0.1:5173",
+            "http://localhost:3000"
+    };
+
+    private final StompAdmissionInterceptor stompAdmissionInterceptor;
     private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final StompErrorHandler stompErrorHandler;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final Duration sendTimeLimit;
+    private final DataSize sendBufferSizeLimit;
+    private final DataSize messageSizeLimit;
 
-    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor) {
+    public WebSocketConfig(
+            StompAdmissionInterceptor stompAdmissionInterceptor,
+            StompAuthChannelInterceptor stompAuthChannelInterceptor,
+            StompErrorHandler stompErrorHandler,
+            SlowConsumerGuard slowConsumerGuard,
+            @Value("${app.realtime.transport.send-time-limit:PT10S}") Duration sendTimeLimit,
+            @Value("${app.realtime.transport.send-buffer-size-limit:512KB}") DataSize sendBufferSizeLimit,
+            @Value("${app.realtime.transport.message-size-limit:64KB}") DataSize messageSizeLimit
+    ) {
+        this.stompAdmissionInterceptor = stompAdmissionInterceptor;
         this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.stompErrorHandler = stompErrorHandler;
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.messageSizeLimit = messageSizeLimit;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
+        // /queue carries per-user replies (/user/queue/...), /topic the board broadcasts.
+        registry.enableSimpleBroker("/topic", "/queue");
         registry.setApplicationDestinationPrefixes("/app");
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
-                .setAllowedOriginPatterns(
-                        "http://localhost:5173",
-                        "http://127.0.0.1:5173",
-                        "http://localhost:3000"
-                ).withSockJS();
+                .setAllowedOriginPatterns(ALLOWED_ORIGINS)
+                .withSockJS();
+
+        // Plain WebSocket for clients that can't use SockJS or want binary event encodings.
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns(ALLOWED_ORIGINS)
+                .addInterceptors(new BinaryFramesHandshakeInterceptor());
+
+        registry.setErrorHandler(stompErrorHandler);
+    }
+
+    // A session whose socket takes longer than the time limit, or whose unsent frames exceed the buffer
+    // limit, is closed; SlowConsumerGuard normally acts before either is reached.
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(Math.toIntExact(sendTimeLimit.toMillis()))
+                .setSendBufferSizeLimit(Math.toIntExact(sendBufferSizeLimit.toBytes()))
+                .setMessageSizeLimit(Math.toIntExact(messageSizeLimit.toBytes()))
+                .addDecoratorFactory(slowConsumerGuard);
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(stompAuthChannelInterceptor);
+        // Admission first: a throttled frame costs no JWT parse or role lookup.
+        registration.interceptors(stompAdmissionInterceptor, stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(slowConsumerGuard);
     }
 }
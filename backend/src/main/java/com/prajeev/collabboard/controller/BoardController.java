@@ -5,10 +5,15 @@ import com.prajeev.collabboard.dto.*;
 import com.prajeev.collabboard.security.AuthPrincipal;
 import com.prajeev.collabboard.service.BoardAuthService;
 import com.prajeev.collabboard.service.BoardService;
+import com.prajeev.collabboard.service.BoardSnapshotBulkhead;
+import com.prajeev.collabboard.service.BoardSnapshotCache;
 import com.prajeev.collabboard.service.ListService;
 import jakarta.validation.Valid;
 import org.apache.coyote.Response;
 import org.hibernate.sql.Update;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -23,11 +28,16 @@ public class BoardController {
     private final BoardService boardService;
     private final ListService listService;
     private final BoardAuthService boardAuthService;
+    private final BoardSnapshotBulkhead snapshotBulkhead;
 
-    public BoardController(BoardService boardService, ListService listService, BoardAuthService boardAuthService) {
+    // Browsers may keep the snapshot but must revalidate it (If-None-Match) on every use.
+    private static final CacheControl SNAPSHOT_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    public BoardController(BoardService boardService, ListService listService, BoardAuthService boardAuthService, BoardSnapshotBulkhead snapshotBulkhead) {
         this.boardService = boardService;
         this.listService = listService;
         this.boardAuthService = boardAuthService;
+        this.snapshotBulkhead = snapshotBulkhead;
     }
 
     @PostMapping
@@ -43,11 +53,46 @@ public class BoardController {
     }
 
     @GetMapping("/{boardId}")
-    public BoardSnapshotResponse getSnapshot(@PathVariable("boardId") UUID boardId, Authentication auth) {
+    public ResponseEntity<BoardSnapshotResponse> getSnapshot(@PathVariable("boardId") UUID boardId,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                             Authentication auth) {
         AuthPrincipal principal = (AuthPrincipal) auth.getPrincipal();
         UUID userId = principal.userId();
 
-        return boardService.getSnapshot(boardId, userId);
+        // Revalidation only reads the board revision; the snapshot is built (or taken from cache) on a miss.
+        if (ifNoneMatch != null) {
+            String current = BoardSnapshotCache.Entry.etag(boardService.getRevision(boardId, userId));
+            if (etagMatches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(current)
+                        .cacheControl(SNAPSHOT_CACHE_CONTROL)
+                        .build();
+            }
+        }
+
+        // Membership is checked per caller before joining a read that may be shared.
+        boardAuthService.requireMember(boardId, userId);
+        BoardSnapshotCache.Entry entry = snapshotBulkhead.read(boardId, () -> boardService.getSnapshot(boardId, userId));
+
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(SNAPSHOT_CACHE_CONTROL)
+                .body(entry.snapshot());
+    }
+
+    @GetMapping("/{boardId}/changes")
+    public BoardChangesResponse getChanges(@PathVariable UUID boardId, @RequestParam long since, Authentication auth) {
+        AuthPrincipal principal = (AuthPrincipal) auth.getPrincipal();
+        return boardService.getChangesSince(boardId, principal.userId(), since);
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
     }
 
     @GetMapping
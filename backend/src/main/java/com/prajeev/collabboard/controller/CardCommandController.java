@@ -0,0 +1,137 @@
+package com.prajeev.collabboard.controller;
+
+import com.prajeev.collabboard.dto.CardCommandResult;
+import com.prajeev.collabboard.dto.ConflictResponse;
+import com.prajeev.collabboard.dto.CreateCardRequest;
+import com.prajeev.collabboard.dto.DeleteCardRequest;
+import com.prajeev.collabboard.dto.MoveCardRequest;
+import com.prajeev.collabboard.dto.PatchCardRequest;
+import com.prajeev.collabboard.exception.ApiError;
+import com.prajeev.collabboard.exception.ConflictException;
+import com.prajeev.collabboard.exception.ForbiddenException;
+import com.prajeev.collabboard.exception.NotFoundException;
+import com.prajeev.collabboard.exception.UnauthorizedException;
+import com.prajeev.collabboard.exception.WipLimitExceededException;
+import com.prajeev.collabboard.security.AuthPrincipal;
+import com.prajeev.collabboard.service.CardService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.FieldError;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Card writes over the STOMP connection the client already holds (SEND to /app/...), for drag and
+ * drop without a request and JWT parse per move. Same CardService calls and checks as CardController;
+ * the user comes from the session authenticated on CONNECT.
+ * Every command gets exactly one CardCommandResult on the sender's own session, at /user/queue/cards.
+ */
+@Controller
+public class CardCommandController {
+    private static final Logger log = LoggerFactory.getLogger(CardCommandController.class);
+
+    public static final String COMMAND_ID_HEADER = "command-id";
+    public static final String REPLY_QUEUE = "/queue/cards";
+
+    private final CardService cardService;
+
+    public CardCommandController(CardService cardService) {
+        this.cardService = cardService;
+    }
+
+    @MessageMapping("/cards/{cardId}/move")
+    @SendToUser(destinations = REPLY_QUEUE, broadcast = false)
+    public CardCommandResult move(@DestinationVariable UUID cardId,
+                                  @Valid @Payload MoveCardRequest request,
+                                  @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                  Authentication auth) {
+        UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
+        return CardCommandResult.ok(commandId, cardService.moveCard(cardId, userId, request.toListId(), request.beforeCardId(), request.afterCardId(), request.expectedVersion()));
+    }
+
+    @MessageMapping("/cards/{cardId}/patch")
+    @SendToUser(destinations = REPLY_QUEUE, broadcast = false)
+    public CardCommandResult patch(@DestinationVariable UUID cardId,
+                                   @Valid @Payload PatchCardRequest request,
+                                   @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                   Authentication auth) {
+        UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
+        return CardCommandResult.ok(commandId, cardService.patchCard(cardId, userId, request.title(), request.description(), request.priority(), request.dueDate(), request.assigneeUserId(), request.expectedVersion()));
+    }
+
+    @MessageMapping("/lists/{listId}/cards/create")
+    @SendToUser(destinations = REPLY_QUEUE, broadcast = false)
+    public CardCommandResult create(@DestinationVariable UUID listId,
+                                    @Valid @Payload CreateCardRequest request,
+                                    @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                    Authentication auth) {
+        UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
+        return CardCommandResult.ok(commandId, cardService.createCard(listId, userId, request.title(), request.description(), request.priority(), request.dueDate(), request.assigneeUserId()));
+    }
+
+    @MessageMapping("/cards/{cardId}/delete")
+    @SendToUser(destinations = REPLY_QUEUE, broadcast = false)
+    public CardCommandResult delete(@DestinationVariable UUID cardId,
+                                    @Valid @Payload DeleteCardRequest request,
+                                    @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                    Authentication auth) {
+        UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
+        cardService.deleteCard(cardId, userId, request.expectedVersion());
+        return CardCommandResult.ok(commandId, null);
+    }
+
+    // Same statuses and bodies as ApiExceptionHandler gives the REST endpoints.
+    @MessageExceptionHandler
+    @SendToUser(destinations = REPLY_QUEUE, broadcast = false)
+    public CardCommandResult handleFailure(Exception ex,
+                                           @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                           @Header(name = SimpMessageHeaderAccessor.DESTINATION_HEADER, required = false) String destination) {
+        return switch (ex) {
+            case ConflictException e -> CardCommandResult.failed(commandId, HttpStatus.CONFLICT.value(),
+                    new ConflictResponse<>(e.getCode(), e.getMessage(), e.getLatest()));
+            case WipLimitExceededException e -> CardCommandResult.failed(commandId, HttpStatus.CONFLICT.value(),
+                    ApiError.ofDetails(e.getCode(), e.getMessage(), destination, Map.of("limit", e.getLimit())));
+            case NotFoundException e -> failed(commandId, HttpStatus.NOT_FOUND, e.getCode(), e.getMessage(), destination);
+            case ForbiddenException e -> failed(commandId, HttpStatus.FORBIDDEN, e.getCode(), e.getMessage(), destination);
+            case UnauthorizedException e -> failed(commandId, HttpStatus.UNAUTHORIZED, e.getCode(), e.getMessage(), destination);
+            case MethodArgumentNotValidException e -> CardCommandResult.failed(commandId, HttpStatus.BAD_REQUEST.value(),
+                    ApiError.of("VALIDATION_ERROR", "Request validation failed", destination, fieldErrors(e)));
+            case MessageConversionException e -> failed(commandId, HttpStatus.BAD_REQUEST, "MALFORMED_JSON", "Malformed JSON", destination);
+            case IllegalArgumentException e -> failed(commandId, HttpStatus.BAD_REQUEST, "BAD_REQUEST", e.getMessage(), destination);
+            default -> {
+                log.warn("Card command to {} failed: {}", destination, ex.toString());
+                yield failed(commandId, HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Something went wrong", destination);
+            }
+        };
+    }
+
+    private static CardCommandResult failed(String commandId, HttpStatus status, String error, String message, String destination) {
+        return CardCommandResult.failed(commandId, status.value(), new ApiError(error, message, destination, Instant.now(), null, null));
+    }
+
+    private static Map<String, String> fieldErrors(MethodArgumentNotValidException ex) {
+        Map<String, String> fieldErrors = new LinkedHashMap<>();
+        if (ex.getBindingResult() == null) return fieldErrors;
+
+        for (FieldError fe : ex.getBindingResult().getFieldErrors()) {
+            fieldErrors.put(fe.getField(), fe.getDefaultMessage());
+        }
+        return fieldErrors;
+    }
+}
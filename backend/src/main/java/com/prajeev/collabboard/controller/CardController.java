@@ -1,6 +1,7 @@
 package com.prajeev.collabboard.controller;
 
 import com.prajeev.collabboard.domain.Card;
+import com.prajeev.collabboard.dto.BatchMoveCardsRequest;
 import com.prajeev.collabboard.dto.CardResponse;
 import com.prajeev.collabboard.dto.DeleteCardRequest;
 import com.prajeev.collabboard.dto.MoveCardRequest;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,6 +25,12 @@ public class CardController {
         this.cardService = cardService;
     }
 
+    @GetMapping("/{cardId}")
+    public CardResponse getCard(@PathVariable("cardId") UUID cardId, Authentication auth) {
+        UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
+        return cardService.getCard(cardId, userId);
+    }
+
     @PatchMapping("/{cardId}")
     public CardResponse updateCard(@PathVariable("cardId") UUID cardId, @RequestBody @Valid PatchCardRequest request, Authentication auth) {
         UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
@@ -37,10 +45,16 @@ public class CardController {
             Authentication auth
             ) {
         UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
-        CardResponse moved = cardService.moveCard(cardId, userId, request.toListId(), request.toPosition(), request.expectedVersion());
+        CardResponse moved = cardService.moveCard(cardId, userId, request.toListId(), request.beforeCardId(), request.afterCardId(), request.expectedVersion());
         return ResponseEntity.ok(moved);
     }
 
+    @PostMapping("/batch-move")
+    public List<CardResponse> moveBatch(@Valid @RequestBody BatchMoveCardsRequest request, Authentication auth) {
+        UUID userId = ((AuthPrincipal) auth.getPrincipal()).userId();
+        return cardService.moveCards(userId, request.moves());
+    }
+
     @DeleteMapping("/{cardId}")
     public ResponseEntity<Void> deleteCard(
             @PathVariable UUID cardId,
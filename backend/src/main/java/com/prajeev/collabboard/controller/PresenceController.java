@@ -0,0 +1,40 @@
+package com.prajeev.collabboard.controller;
+
+import com.prajeev.collabboard.dto.PresenceUpdate;
+import com.prajeev.collabboard.realtime.BoardPresenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+import java.util.UUID;
+
+/**
+ * Presence and live-drag updates (SEND to /app/boards/{boardId}/presence). Membership is checked by
+ * StompAuthChannelInterceptor; BoardPresenceService only keeps the latest update per sender and relays it
+ * at its own pace. Fire and forget: there is no reply, and a bad update is dropped.
+ */
+@Controller
+public class PresenceController {
+    private static final Logger log = LoggerFactory.getLogger(PresenceController.class);
+
+    private final BoardPresenceService presenceService;
+
+    public PresenceController(BoardPresenceService presenceService) {
+        this.presenceService = presenceService;
+    }
+
+    @MessageMapping("/boards/{boardId}/presence")
+    public void update(@DestinationVariable UUID boardId, @Payload PresenceUpdate update, SimpMessageHeaderAccessor headers) {
+        presenceService.update(boardId, headers.getSessionId(), update);
+    }
+
+    @MessageExceptionHandler
+    public void handleFailure(Exception ex) {
+        log.debug("Presence update dropped: {}", ex.toString());
+    }
+}
@@ -17,6 +17,10 @@ public class Board {
     @Column(nullable = false)
     private String name;
 
+    // Only ever changed by BoardRepository.bumpRevision.
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long revision;
+
     protected Board() {}
 
     public Board(UUID id, String name) {
@@ -26,4 +30,5 @@ public class Board {
 
     public UUID getId() { return id; }
     public String getName() { return name; }
+    public long getRevision() { return revision; }
 }
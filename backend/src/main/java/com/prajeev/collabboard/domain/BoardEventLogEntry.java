@@ -0,0 +1,49 @@
+package com.prajeev.collabboard.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "board_events")
+@IdClass(BoardEventLogEntryId.class)
+@Getter
+public class BoardEventLogEntry {
+    @Id
+    @Column(name = "board_id", columnDefinition = "uuid")
+    private UUID boardId;
+
+    @Id
+    private long revision;
+
+    @Column(name = "event_id", nullable = false, columnDefinition = "uuid")
+    private UUID eventId;
+
+    @Column(nullable = false)
+    private String type;
+
+    // The published BoardEvent, serialized as sent to subscribers.
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected BoardEventLogEntry() {
+
+    }
+
+    public BoardEventLogEntry(UUID boardId, long revision, UUID eventId, String type, String payload, Instant createdAt) {
+        this.boardId = boardId;
+        this.revision = revision;
+        this.eventId = eventId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
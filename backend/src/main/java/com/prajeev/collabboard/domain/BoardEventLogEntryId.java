@@ -0,0 +1,29 @@
+package com.prajeev.collabboard.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+public class BoardEventLogEntryId implements Serializable {
+    private UUID boardId;
+    private long revision;
+
+    public BoardEventLogEntryId() {}
+
+    public BoardEventLogEntryId(UUID boardId, long revision) {
+        this.boardId = boardId;
+        this.revision = revision;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardEventLogEntryId)) return false;
+        return Objects.equals(boardId, ((BoardEventLogEntryId) o).boardId) && revision == ((BoardEventLogEntryId) o).revision;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(boardId, revision);
+    }
+}
@@ -26,6 +26,14 @@ public class BoardList {
     @Column(name = "wip_limit")
     private Integer wipLimit;
 
+    // Maintained by ListRepository.recordCardAdded/recordCardRemoved in the card write transaction.
+    @Column(name = "card_count", nullable = false)
+    private int cardCount;
+
+    // High-water mark of card ranks in this list; appends go after it.
+    @Column(name = "max_rank", nullable = false)
+    private long maxRank;
+
     protected BoardList() {}
 
     public BoardList(UUID id, UUID boardId, String name, int position, Integer wipLimit) {
@@ -55,4 +63,12 @@ public class BoardList {
     public Integer getWipLimit() {
         return wipLimit;
     }
+
+    public int getCardCount() {
+        return cardCount;
+    }
+
+    public long getMaxRank() {
+        return maxRank;
+    }
 }
@@ -23,6 +23,9 @@ public class Card {
     @Column(name = "list_id", nullable = false, columnDefinition = "uuid")
     private UUID listId;
 
+    @Column(name = "board_id", nullable = false, columnDefinition = "uuid")
+    private UUID boardId;
+
     @Column(nullable = false)
     private String title;
 
@@ -30,7 +33,7 @@ public class Card {
     private String description;
 
     @Column(nullable = false)
-    private int position;
+    private long rank;
 
     @Column(nullable = false)
     private long version;
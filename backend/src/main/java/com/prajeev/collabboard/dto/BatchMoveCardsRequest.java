@@ -0,0 +1,10 @@
+package com.prajeev.collabboard.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchMoveCardsRequest(@NotEmpty @Size(max = 200) List<@Valid BatchMoveItem> moves) {
+}
@@ -0,0 +1,9 @@
+package com.prajeev.collabboard.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+// Anchors resolve against the list order after the preceding moves of the same batch (see MoveCardRequest).
+public record BatchMoveItem(@NotNull UUID cardId, @NotNull UUID toListId, UUID beforeCardId, UUID afterCardId, @NotNull Long expectedVersion) {
+}
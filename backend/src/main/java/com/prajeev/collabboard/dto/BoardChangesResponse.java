@@ -0,0 +1,15 @@
+package com.prajeev.collabboard.dto;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Catch-up for a client behind the board's current revision: either the missed events
+ * (as published, in revision order) or, when they can't be replayed, a full snapshot.
+ */
+public record BoardChangesResponse(long revision,
+                                   List<JsonNode> events,
+                                   BoardSnapshotResponse snapshot) {
+
+}
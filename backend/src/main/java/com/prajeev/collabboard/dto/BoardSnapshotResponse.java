@@ -6,6 +6,7 @@ import java.util.UUID;
 
 public record BoardSnapshotResponse(BoardResponse board,
                                     List<ListResponse> lists,
-                                    Map<UUID, List<CardResponse>> cardsByListId) {
+                                    Map<UUID, List<CardResponse>> cardsByListId,
+                                    long revision) {
 
 }
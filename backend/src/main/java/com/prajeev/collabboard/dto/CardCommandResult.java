@@ -0,0 +1,22 @@
+package com.prajeev.collabboard.dto;
+
+/**
+ * Reply to a card command sent over STOMP, delivered on the sender's /user/queue/cards.
+ * status and error mirror the REST endpoint's response: 200 with the card (null for a delete),
+ * or the error status with the same body (ApiError, or ConflictResponse for version conflicts).
+ * commandId echoes the command-id header of the command.
+ */
+public record CardCommandResult(
+        String commandId,
+        int status,
+        CardResponse card,
+        Object error
+) {
+    public static CardCommandResult ok(String commandId, CardResponse card) {
+        return new CardCommandResult(commandId, 200, card, null);
+    }
+
+    public static CardCommandResult failed(String commandId, int status, Object error) {
+        return new CardCommandResult(commandId, status, null, error);
+    }
+}
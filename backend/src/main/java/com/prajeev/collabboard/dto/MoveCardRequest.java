@@ -1,10 +1,14 @@
 package com.prajeev.collabboard.dto;
 
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Min;
 
 import java.util.UUID;
 
-public record MoveCardRequest(@NotNull UUID toListId, @Min(0) int toPosition, @NotNull Long expectedVersion) {
+/**
+ * Target placement is given by neighbour card IDs in toListId rather than an index:
+ * beforeCardId is the card the moved card should follow, afterCardId the one it should precede.
+ * beforeCardId wins when both are set; with neither (or neither still in the list) the card goes to the end.
+ */
+public record MoveCardRequest(@NotNull UUID toListId, UUID beforeCardId, UUID afterCardId, @NotNull Long expectedVersion) {
 
 }
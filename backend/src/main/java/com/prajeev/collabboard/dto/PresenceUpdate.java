@@ -0,0 +1,12 @@
+package com.prajeev.collabboard.dto;
+
+import java.util.UUID;
+
+/**
+ * A client's own presence on a board: its pointer position (in the client's board coordinates, null when
+ * off the board) and the card it is dragging, if any. Each update replaces the previous one; an unchanged
+ * update is a heartbeat.
+ */
+public record PresenceUpdate(Double x, Double y, UUID draggingCardId) {
+
+}
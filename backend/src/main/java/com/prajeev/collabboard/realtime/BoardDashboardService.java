@@ -0,0 +1,368 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.domain.Board;
+import com.prajeev.collabboard.domain.BoardMembership;
+import com.prajeev.collabboard.repository.BoardEventLogRepository;
+import com.prajeev.collabboard.repository.BoardMembershipRepository;
+import com.prajeev.collabboard.repository.BoardRepository;
+import com.prajeev.collabboard.repository.ListRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One stream per user with a summary of every board they belong to (/user/queue/boards), instead of a
+ * board topic subscription per board.
+ *  - A SUBSCRIBE reads the user's memberships once (findByUserId) and gets a snapshot; summaries are
+ *    read from the database only for boards nobody on this node is watching yet.
+ *  - From then on summaries follow the board events this node fans out or relays, and changed ones go
+ *    out at most once per interval, all of a user's boards in one frame.
+ *  - Membership changes (BoardEventPublisher.membershipChanged/boardDeleted) add and remove boards.
+ * Card counts are kept from CARD_CREATED/CARD_DELETED and re-read after LIST_DELETED.
+ */
+@Component
+public class BoardDashboardService implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(BoardDashboardService.class);
+
+    public static final String QUEUE = "/queue/boards";
+    private static final String USER_QUEUE = "/user" + QUEUE;
+    private static final int MAX_LOADS = 3;
+
+    private record DashboardSession(UUID userId, Set<String> subscriptions) {
+
+    }
+
+    private final SimpMessagingTemplate ws;
+    private final MessageChannel clientOutboundChannel;
+    private final JsonMapper jsonMapper;
+    private final BoardMembershipRepository membershipRepository;
+    private final BoardRepository boardRepository;
+    private final ListRepository listRepository;
+    private final BoardEventLogRepository eventLogRepository;
+    private final TransactionTemplate readTx;
+    private final ScheduledExecutorService scheduler;
+
+    // Structural changes (sessions, memberships) happen under this lock; the event path only reads.
+    private final Object lock = new Object();
+    // sessionId -> its dashboard subscriptions
+    private final Map<String, DashboardSession> sessions = new HashMap<>();
+    // userId -> boards on the dashboard, for users with a dashboard open on this node
+    private final Map<UUID, Set<UUID>> boardsByUser = new ConcurrentHashMap<>();
+    // boardId -> users here watching it
+    private final Map<UUID, Set<UUID>> watchers = new ConcurrentHashMap<>();
+
+    private final Map<UUID, BoardSummary> summaries = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> recount = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<UUID>> removed = new ConcurrentHashMap<>();
+
+    public BoardDashboardService(
+            SimpMessagingTemplate ws,
+            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+            JsonMapper jsonMapper,
+            BoardMembershipRepository membershipRepository,
+            BoardRepository boardRepository,
+            ListRepository listRepository,
+            BoardEventLogRepository eventLogRepository,
+            TransactionTemplate tx,
+            @Value("${app.realtime.dashboard.interval:PT1S}") Duration interval
+    ) {
+        this.ws = ws;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.jsonMapper = jsonMapper;
+        this.membershipRepository = membershipRepository;
+        this.boardRepository = boardRepository;
+        this.listRepository = listRepository;
+        this.eventLogRepository = eventLogRepository;
+
+        // A summary's revision and card count must come from the same snapshot.
+        this.readTx = new TransactionTemplate(tx.getTransactionManager());
+        readTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        readTx.setReadOnly(true);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("board-dashboard").daemon().factory()
+        );
+        scheduler.scheduleWithFixedDelay(this::flushSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isWatched(UUID boardId) {
+        return watchers.containsKey(boardId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Principal user = event.getUser();
+        if (!USER_QUEUE.equals(accessor.getDestination()) || user == null
+                || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+
+        UUID userId = UUID.fromString(user.getName());
+        Set<UUID> boardIds = membershipRepository.findByUserId(userId).stream()
+                .map(BoardMembership::getBoardId)
+                .collect(Collectors.toSet());
+
+        synchronized (lock) {
+            sessions.computeIfAbsent(accessor.getSessionId(), id -> new DashboardSession(userId, new HashSet<>()))
+                    .subscriptions().add(accessor.getSubscriptionId());
+
+            // A second dashboard of the same user re-reads the memberships, which are the same or newer.
+            Set<UUID> previous = boardsByUser.put(userId, ConcurrentHashMap.newKeySet());
+            if (previous != null) previous.forEach(boardId -> unwatch(boardId, userId));
+            boardIds.forEach(boardId -> watch(boardId, userId));
+        }
+
+        load(boardIds);
+
+        List<BoardSummary> boards = boardIds.stream().map(summaries::get).filter(s -> s != null).toList();
+        clientOutboundChannel.send(BoardEventMessages.frameToSubscriber(
+                jsonMapper.writeValueAsBytes(new DashboardFrame(true, boards, List.of())),
+                EventEncoding.JSON,
+                accessor.getSessionId(),
+                accessor.getSubscriptionId(),
+                USER_QUEUE
+        ));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() == null) return;
+
+        synchronized (lock) {
+            DashboardSession session = sessions.get(accessor.getSessionId());
+            if (session == null || !session.subscriptions().remove(accessor.getSubscriptionId())) return;
+
+            if (session.subscriptions().isEmpty()) closeSession(accessor.getSessionId());
+        }
+    }
+
+    // Can arrive more than once for a session; only the first one finds anything to remove.
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        synchronized (lock) {
+            closeSession(event.getSessionId());
+        }
+    }
+
+    // Committed board events, local or relayed, before any coalescing.
+    public void onEvents(UUID boardId, List<EncodedBoardEvent> events) {
+        if (events.isEmpty() || !watchers.containsKey(boardId)) return;
+
+        summaries.computeIfPresent(boardId, (id, summary) -> {
+            for (EncodedBoardEvent encoded : events) {
+                BoardEvent<?> event = encoded.event();
+                if (event.revision() <= summary.revision()) continue;
+
+                long cardCount = summary.cardCount() + switch (event.type()) {
+                    case CARD_CREATED -> 1;
+                    case CARD_DELETED -> -1;
+                    default -> 0;
+                };
+                if (event.type() == BoardEventType.LIST_DELETED) recount.add(id);
+
+                summary = new BoardSummary(id, summary.name(), event.revision(), cardCount, event.ts());
+            }
+            return summary;
+        });
+        dirty.add(boardId);
+    }
+
+    public void membershipChanged(UUID boardId, UUID userId, boolean member) {
+        synchronized (lock) {
+            Set<UUID> boards = boardsByUser.get(userId);
+            if (boards == null) return;
+
+            if (member) {
+                watch(boardId, userId);
+                Set<UUID> gone = removed.get(userId);
+                if (gone != null) gone.remove(boardId);
+            } else {
+                unwatch(boardId, userId);
+                removed.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(boardId);
+            }
+        }
+
+        if (member) {
+            load(Set.of(boardId));
+            dirty.add(boardId);
+        }
+    }
+
+    public void boardDeleted(UUID boardId) {
+        synchronized (lock) {
+            Set<UUID> users = watchers.get(boardId);
+            if (users == null) return;
+
+            for (UUID userId : Set.copyOf(users)) {
+                unwatch(boardId, userId);
+                removed.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(boardId);
+            }
+        }
+    }
+
+    private void watch(UUID boardId, UUID userId) {
+        boardsByUser.get(userId).add(boardId);
+        watchers.computeIfAbsent(boardId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    private void unwatch(UUID boardId, UUID userId) {
+        Set<UUID> boards = boardsByUser.get(userId);
+        if (boards != null) boards.remove(boardId);
+
+        Set<UUID> users = watchers.get(boardId);
+        if (users == null) return;
+
+        users.remove(userId);
+        if (users.isEmpty()) {
+            watchers.remove(boardId);
+            summaries.remove(boardId);
+        }
+    }
+
+    private void closeSession(String sessionId) {
+        DashboardSession session = sessions.remove(sessionId);
+        if (session == null) return;
+
+        boolean otherSessions = sessions.values().stream().anyMatch(s -> s.userId().equals(session.userId()));
+        if (otherSessions) return;
+
+        Set<UUID> boards = boardsByUser.get(session.userId());
+        if (boards != null) Set.copyOf(boards).forEach(boardId -> unwatch(boardId, session.userId()));
+        boardsByUser.remove(session.userId());
+        removed.remove(session.userId());
+    }
+
+    /**
+     * Reads the summaries of the boards that don't have one yet. An event committed while a summary is
+     * being read finds nothing to update in onEvents and is lost, so boards whose revision has moved past
+     * the stored summary are read again; the higher revision wins over an event applied meanwhile.
+     */
+    private void load(Set<UUID> boardIds) {
+        Set<UUID> missing = boardIds.stream().filter(id -> !summaries.containsKey(id)).collect(Collectors.toSet());
+
+        for (int attempt = 0; attempt < MAX_LOADS && !missing.isEmpty(); attempt++) {
+            for (BoardSummary loaded : readSummaries(missing)) {
+                if (!watchers.containsKey(loaded.boardId())) continue;
+                summaries.merge(loaded.boardId(), loaded, (current, fresh) -> fresh.revision() > current.revision() ? fresh : current);
+            }
+
+            missing = boardRepository.findAllById(missing).stream()
+                    .filter(board -> {
+                        BoardSummary summary = summaries.get(board.getId());
+                        return summary != null && summary.revision() < board.getRevision();
+                    })
+                    .map(Board::getId)
+                    .collect(Collectors.toSet());
+        }
+
+        // Still moving after that: at least have the card count re-read on the next flush.
+        recount.addAll(missing);
+    }
+
+    // One query each for boards, counts and activity.
+    private List<BoardSummary> readSummaries(Set<UUID> boardIds) {
+        return readTx.execute(status -> {
+            Map<UUID, Long> counts = countCards(boardIds);
+            Map<UUID, Instant> activity = eventLogRepository.findLastActivityByBoardIds(boardIds).stream()
+                    .collect(Collectors.toMap(BoardEventLogRepository.BoardActivity::getBoardId, BoardEventLogRepository.BoardActivity::getLastActivityAt));
+
+            return boardRepository.findAllById(boardIds).stream()
+                    .map(board -> new BoardSummary(
+                            board.getId(),
+                            board.getName(),
+                            board.getRevision(),
+                            counts.getOrDefault(board.getId(), 0L),
+                            activity.get(board.getId())
+                    ))
+                    .toList();
+        });
+    }
+
+    private Map<UUID, Long> countCards(Set<UUID> boardIds) {
+        return listRepository.countCardsByBoardIds(boardIds).stream()
+                .collect(Collectors.toMap(ListRepository.BoardCardCount::getBoardId, ListRepository.BoardCardCount::getCardCount));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Dashboard flush failed: {}", e.toString());
+        }
+    }
+
+    private void flush() {
+        if (!recount.isEmpty()) {
+            Set<UUID> boardIds = Set.copyOf(recount);
+            recount.removeAll(boardIds);
+
+            countCards(boardIds).forEach((boardId, count) -> summaries.computeIfPresent(boardId, (id, s) ->
+                    new BoardSummary(id, s.name(), s.revision(), count, s.lastActivityAt())));
+            dirty.addAll(boardIds);
+        }
+
+        Map<UUID, List<BoardSummary>> changedByUser = new HashMap<>();
+        for (UUID boardId : Set.copyOf(dirty)) {
+            dirty.remove(boardId);
+
+            BoardSummary summary = summaries.get(boardId);
+            if (summary == null) continue;
+
+            for (UUID userId : watchers.getOrDefault(boardId, Set.of())) {
+                changedByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(summary);
+            }
+        }
+
+        Map<UUID, List<UUID>> removedByUser = new HashMap<>();
+        for (UUID userId : Set.copyOf(removed.keySet())) {
+            Set<UUID> boards = removed.remove(userId);
+            if (boards != null && !boards.isEmpty()) removedByUser.put(userId, List.copyOf(boards));
+        }
+
+        Set<UUID> users = new HashSet<>(changedByUser.keySet());
+        users.addAll(removedByUser.keySet());
+        for (UUID userId : users) {
+            DashboardFrame frame = new DashboardFrame(
+                    false,
+                    changedByUser.getOrDefault(userId, List.of()),
+                    removedByUser.getOrDefault(userId, List.of())
+            );
+            ws.convertAndSendToUser(userId.toString(), QUEUE, frame);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
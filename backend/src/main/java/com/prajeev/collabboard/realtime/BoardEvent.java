@@ -3,13 +3,22 @@ package com.prajeev.collabboard.realtime;
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * revision is the board revision this event moved the board to. It is 0 until
+ * BoardEventPublisher stamps it at enqueue time.
+ */
 public record BoardEvent<T>(
         UUID eventId,
         Instant ts,
         UUID boardId,
+        long revision,
         BoardEventType type,
         T data) {
     public static <T> BoardEvent<T>of(UUID boardId, BoardEventType type, T data) {
-        return new BoardEvent<>(UUID.randomUUID(), Instant.now(), boardId, type, data);
+        return new BoardEvent<>(UUID.randomUUID(), Instant.now(), boardId, 0L, type, data);
+    }
+
+    public BoardEvent<T> withRevision(long revision) {
+        return new BoardEvent<>(eventId, ts, boardId, revision, type, data);
     }
 }
@@ -0,0 +1,190 @@
+package com.prajeev.collabboard.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Optional stage between commit and broker that holds a board's CARD_UPDATED events for a short window
+ * and merges consecutive updates of a card into one (autosave produces one per keystroke pause).
+ *  - Any other event type is a barrier: it flushes the window immediately, together with itself, and
+ *    updates are never collapsed across it. So a card's update, move and update stay in that order.
+ *  - A merged update lists the revisions it replaced in "supersedes", so clients can account for
+ *    them instead of waiting on a revision gap. It is the only event here that gets encoded again.
+ */
+@Component
+public class BoardEventCoalescer implements DisposableBean {
+    private final boolean enabled;
+    private final long windowMillis;
+    private final Counter suppressed;
+    private final ScheduledExecutorService scheduler;
+    private final JsonMapper jsonMapper;
+
+    private final Map<UUID, List<EncodedBoardEvent>> windows = new ConcurrentHashMap<>();
+
+    public BoardEventCoalescer(
+            MeterRegistry meterRegistry,
+            JsonMapper jsonMapper,
+            @Value("${app.realtime.coalesce.enabled:false}") boolean enabled,
+            @Value("${app.realtime.coalesce.window:PT0.15S}") Duration window
+    ) {
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+        this.suppressed = Counter.builder("board.events.coalesced.suppressed")
+                .description("CARD_UPDATED events not sent because they were merged into a later update of the same card")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("board-event-coalescer").daemon().factory()
+        );
+    }
+
+    /**
+     * Hands a board's committed events to send, right away or when the board's window closes.
+     * Each batch reaches send in revision order. send runs after the window is taken out of the map,
+     * never under its lock (it may fan out inline under CALLER_RUNS), so it can be called from several
+     * threads for one board; the dispatcher's stripe keeps one board's batches serial.
+     */
+    public void offer(UUID boardId, List<EncodedBoardEvent> events, Consumer<List<EncodedBoardEvent>> send) {
+        if (!enabled || windowMillis <= 0) {
+            send.accept(events);
+            return;
+        }
+
+        List<List<EncodedBoardEvent>> closed = new ArrayList<>(1);
+        windows.compute(boardId, (id, window) -> {
+            boolean opened = window == null;
+            if (opened) window = new ArrayList<>();
+            window.addAll(events);
+
+            if (events.stream().anyMatch(e -> e.event().type() != BoardEventType.CARD_UPDATED)) {
+                closed.add(window);
+                return null;
+            }
+
+            if (opened) {
+                scheduler.schedule(() -> flush(id, send), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            return window;
+        });
+
+        for (List<EncodedBoardEvent> window : closed) send.accept(collapse(window));
+    }
+
+    private void flush(UUID boardId, Consumer<List<EncodedBoardEvent>> send) {
+        List<EncodedBoardEvent> window = windows.remove(boardId);
+        if (window != null) send.accept(collapse(window));
+    }
+
+    private List<EncodedBoardEvent> collapse(List<EncodedBoardEvent> events) {
+        List<EncodedBoardEvent> kept = new ArrayList<>(events.size());
+        Map<UUID, Integer> latestUpdate = new HashMap<>();
+        Map<Integer, List<Long>> superseded = new HashMap<>();
+
+        for (EncodedBoardEvent encoded : events) {
+            if (!(encoded.event().data() instanceof CardUpdatedData update)) {
+                latestUpdate.clear();
+                kept.add(encoded);
+                continue;
+            }
+
+            Integer previous = latestUpdate.put(update.cardId(), kept.size());
+            EncodedBoardEvent earlier = previous == null ? null : kept.get(previous);
+
+            // Deltas only chain when the later one starts where the earlier one ended.
+            if (earlier == null || ((CardUpdatedData) earlier.event().data()).version() != update.baseVersion()) {
+                kept.add(encoded);
+                continue;
+            }
+
+            List<Long> replaced = superseded.computeIfAbsent(kept.size(), i -> new ArrayList<>());
+            replaced.addAll(superseded.getOrDefault(previous, List.of()));
+            replaced.add(earlier.event().revision());
+            kept.set(previous, null);
+            kept.add(new EncodedBoardEvent(merge(earlier.event(), encoded.event()), null, mergeCards(earlier.cards(), encoded.cards())));
+            suppressed.increment();
+        }
+
+        List<EncodedBoardEvent> out = new ArrayList<>(kept.size());
+        for (int i = 0; i < kept.size(); i++) {
+            EncodedBoardEvent encoded = kept.get(i);
+            if (encoded == null) continue;
+
+            List<Long> replaced = superseded.get(i);
+            if (replaced == null) {
+                out.add(encoded);
+                continue;
+            }
+
+            byte[] json = withSupersedes(jsonMapper.writeValueAsBytes(encoded.event()), replaced);
+            out.add(new EncodedBoardEvent(encoded.event(), json, encoded.cards()));
+        }
+        return out;
+    }
+
+    // One update covering both: the earlier base version, the later result, and the union of the changes.
+    private static BoardEvent<CardUpdatedData> merge(BoardEvent<?> earlier, BoardEvent<?> later) {
+        CardUpdatedData first = (CardUpdatedData) earlier.data();
+        CardUpdatedData last = (CardUpdatedData) later.data();
+
+        Map<String, Object> changes = new LinkedHashMap<>(first.changes());
+        changes.putAll(last.changes());
+
+        return new BoardEvent<>(
+                later.eventId(),
+                later.ts(),
+                later.boardId(),
+                later.revision(),
+                later.type(),
+                new CardUpdatedData(last.cardId(), last.listId(), first.baseVersion(), last.version(), last.updatedAt(), changes)
+        );
+    }
+
+    // The merged update matches a filter if either of the two did; unknown stays unknown.
+    private static List<CardFacets> mergeCards(List<CardFacets> earlier, List<CardFacets> later) {
+        if (earlier == null || later == null) return null;
+
+        List<CardFacets> cards = new ArrayList<>(earlier);
+        cards.addAll(later);
+        return cards;
+    }
+
+    // Splices "supersedes":[...] in as the first field of the already encoded event object.
+    private static byte[] withSupersedes(byte[] json, List<Long> revisions) {
+        StringBuilder field = new StringBuilder("{\"supersedes\":[");
+        for (int i = 0; i < revisions.size(); i++) {
+            if (i > 0) field.append(',');
+            field.append(revisions.get(i));
+        }
+        field.append("],");
+
+        byte[] head = field.toString().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(head.length + json.length);
+        out.writeBytes(head);
+        out.write(json, 1, json.length - 1);
+        return out.toByteArray();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package com.prajeev.collabboard.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs STOMP fanout off the committing thread. Boards are striped over single-threaded executors
+ * (one virtual thread each), so one board's events are sent in order while boards on different
+ * stripes fan out in parallel. Each stripe has a bounded queue; when it is full the overflow policy decides:
+ *  - DROP: the event is not sent. Subscribers see the revision gap and re-sync.
+ *  - CALLER_RUNS: the calling thread sends it. Nothing is lost, but it may overtake queued events
+ *    of the same board (clients apply events in revision order either way).
+ */
+@Component
+public class BoardEventDispatcher implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(BoardEventDispatcher.class);
+
+    public enum OverflowPolicy { DROP, CALLER_RUNS }
+
+    private final ThreadPoolExecutor[] stripes;
+    private final OverflowPolicy overflowPolicy;
+    private final Timer latency;
+    private final Counter dropped;
+
+    public BoardEventDispatcher(
+            MeterRegistry meterRegistry,
+            @Value("${app.realtime.dispatch.stripes:16}") int stripeCount,
+            @Value("${app.realtime.dispatch.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.realtime.dispatch.overflow-policy:DROP}") OverflowPolicy overflowPolicy
+    ) {
+        this.overflowPolicy = overflowPolicy;
+        this.stripes = new ThreadPoolExecutor[stripeCount];
+
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    Thread.ofVirtual().name("board-dispatch-" + i).factory(),
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
+
+        Gauge.builder("board.events.dispatch.queue.depth", this, BoardEventDispatcher::queueDepth)
+                .description("Board events waiting to be fanned out, across all stripes")
+                .register(meterRegistry);
+        this.latency = Timer.builder("board.events.dispatch.latency")
+                .description("Time from hand-off to the end of the broker send")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("board.events.dispatch.dropped")
+                .description("Board events not sent because their stripe queue was full")
+                .register(meterRegistry);
+    }
+
+    public void dispatch(UUID boardId, Runnable send) {
+        long queuedAt = System.nanoTime();
+        Runnable timed = () -> {
+            try {
+                send.run();
+            } catch (Exception e) {
+                log.warn("Failed to dispatch event for boardId {}: {}", boardId, e.toString());
+            } finally {
+                latency.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            }
+        };
+
+        try {
+            stripes[Math.floorMod(boardId.hashCode(), stripes.length)].execute(timed);
+        } catch (RejectedExecutionException e) {
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+                timed.run();
+                return;
+            }
+
+            dropped.increment();
+        }
+    }
+
+    private double queueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            depth += stripe.getQueue().size();
+        }
+        return depth;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.prajeev.collabboard.realtime;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends a board's committed events to this node's subscribers as one frame, after the coalescer has
+ * had its say. The frame is encoded once per encoding that has subscribers and sent to that encoding's
+ * topic; boards nobody here is subscribed to are skipped altogether.
+ * Filtered subscriptions have a topic per distinct filter: each filter is evaluated once per batch,
+ * however many sessions share it, and its topic only gets the matching events (nothing when none match).
+ * Encoding and sends run on the board's dispatcher stripe, not on the thread that committed.
+ * Every committed batch also goes to the dashboards (BoardDashboardService) watching the board.
+ */
+@Component
+public class BoardEventFanout {
+    private final SimpMessagingTemplate ws;
+    private final BoardEventDispatcher dispatcher;
+    private final BoardEventCoalescer coalescer;
+    private final EventEncoders encoders;
+    private final BoardSubscriptionRegistry subscriptions;
+    private final BoardDashboardService dashboard;
+
+    // boardId -> filter -> first revision its next frame accounts for (see BoardEventMessages.filteredFrame)
+    private final Map<UUID, Map<SubscriptionFilter, Long>> coveredFrom = new ConcurrentHashMap<>();
+
+    public BoardEventFanout(SimpMessagingTemplate ws, BoardEventDispatcher dispatcher, BoardEventCoalescer coalescer, EventEncoders encoders, BoardSubscriptionRegistry subscriptions, BoardDashboardService dashboard) {
+        this.ws = ws;
+        this.dispatcher = dispatcher;
+        this.coalescer = coalescer;
+        this.encoders = encoders;
+        this.subscriptions = subscriptions;
+        this.dashboard = dashboard;
+    }
+
+    public boolean hasSubscribers(UUID boardId) {
+        return subscriptions.hasSubscribers(boardId) || dashboard.isWatched(boardId);
+    }
+
+    public void send(UUID boardId, List<EncodedBoardEvent> events) {
+        dashboard.onEvents(boardId, events);
+
+        if (!subscriptions.hasSubscribers(boardId)) {
+            coveredFrom.remove(boardId);
+            return;
+        }
+        if (events.isEmpty()) return;
+
+        coalescer.offer(boardId, events, batch -> dispatcher.dispatch(boardId, () -> fanOut(boardId, batch)));
+    }
+
+    private void fanOut(UUID boardId, List<EncodedBoardEvent> batch) {
+        Map<SubscriptionFilter, List<EventEncoding>> feeds = new HashMap<>();
+        for (BoardSubscriptionRegistry.BoardFeed feed : subscriptions.feeds(boardId)) {
+            if (encoders.enabled().contains(feed.encoding())) {
+                feeds.computeIfAbsent(feed.filter(), f -> new ArrayList<>()).add(feed.encoding());
+            }
+        }
+
+        Map<SubscriptionFilter, Long> covered = coveredFrom.computeIfAbsent(boardId, id -> new ConcurrentHashMap<>());
+        covered.keySet().retainAll(feeds.keySet());
+
+        long first = batch.getFirst().event().revision();
+
+        for (var e : feeds.entrySet()) {
+            SubscriptionFilter filter = e.getKey();
+
+            if (filter.isAll()) {
+                byte[] json = BoardEventMessages.batch(batch.stream().map(EncodedBoardEvent::json).toList());
+                for (EventEncoding encoding : e.getValue()) {
+                    byte[] frame = encoders.transcode(json, encoding);
+                    ws.send(BoardTopics.of(boardId, encoding), BoardEventMessages.frame(frame, encoding));
+                }
+                continue;
+            }
+
+            List<EncodedBoardEvent> matching = batch.stream().filter(filter::matches).toList();
+            if (matching.isEmpty()) {
+                // The next frame for this filter accounts for this batch too.
+                covered.putIfAbsent(filter, first);
+                continue;
+            }
+
+            long from = covered.getOrDefault(filter, first);
+            byte[] json = BoardEventMessages.batch(matching.stream().map(EncodedBoardEvent::json).toList());
+            for (EventEncoding encoding : e.getValue()) {
+                byte[] frame = encoders.transcode(json, encoding);
+                ws.send(BoardTopics.of(boardId, encoding, filter), BoardEventMessages.filteredFrame(frame, encoding, from));
+            }
+            // Revisions after the last match are left for the next frame to account for.
+            covered.put(filter, matching.getLast().event().revision() + 1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.prajeev.collabboard.realtime;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Builds broker messages from already encoded event frames, so sends skip the message converter.
+ */
+final class BoardEventMessages {
+    static final String COVERS_FROM_HEADER = "covers-from";
+
+    private BoardEventMessages() {
+
+    }
+
+    /**
+     * One frame for several encoded events: the event itself when there is just one, otherwise a JSON
+     * array of them in order. The array is spliced from the existing bytes, nothing is re-encoded.
+     */
+    static byte[] batch(List<byte[]> events) {
+        if (events.size() == 1) return events.getFirst();
+
+        int size = events.size() + 1;
+        for (byte[] json : events) size += json.length;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('[');
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) out.write(',');
+            out.writeBytes(events.get(i));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    // For SimpMessagingTemplate.send(destination, message): the broker fans it out to every subscriber.
+    static Message<byte[]> frame(byte[] payload, EventEncoding encoding) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        describe(headers, encoding);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+    }
+
+    /**
+     * A frame for a filtered topic. Every revision from coversFrom up to the frame's last event that
+     * isn't in the frame was filtered out, so its subscribers don't wait on the gap.
+     */
+    static Message<byte[]> filteredFrame(byte[] payload, EventEncoding encoding, long coversFrom) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        describe(headers, encoding);
+        headers.setNativeHeader(COVERS_FROM_HEADER, Long.toString(coversFrom));
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+    }
+
+    // For clientOutboundChannel: goes to one subscription of one session only.
+    static Message<byte[]> frameToSubscriber(byte[] payload, EventEncoding encoding, String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(destination);
+        describe(headers, encoding);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+    }
+
+    private static void describe(SimpMessageHeaderAccessor headers, EventEncoding encoding) {
+        headers.setContentType(encoding.contentType());
+        headers.setNativeHeader(EventEncoding.HEADER, encoding.headerValue());
+    }
+}
@@ -1,18 +1,146 @@
 package com.prajeev.collabboard.realtime;
 
-import org.springframework.context.ApplicationEventPublisher;
+import com.prajeev.collabboard.repository.BoardEventLogRepository;
+import com.prajeev.collabboard.repository.BoardRepository;
+import com.prajeev.collabboard.service.BoardSnapshotCache;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class BoardEventPublisher {
-    private final ApplicationEventPublisher publisher;
+    private final BoardRepository boardRepository;
+    private final BoardEventLogRepository eventLogRepository;
+    private final BoardSnapshotCache snapshotCache;
+    private final JsonMapper jsonMapper;
+    private final ClusterEventRelay clusterRelay;
+    private final BoardEventFanout fanout;
+    private final BoardDashboardService dashboard;
 
-    public BoardEventPublisher(ApplicationEventPublisher publisher) {
-        this.publisher = publisher;
+    public BoardEventPublisher(BoardRepository boardRepository, BoardEventLogRepository eventLogRepository, BoardSnapshotCache snapshotCache, JsonMapper jsonMapper, ClusterEventRelay clusterRelay, BoardEventFanout fanout, BoardDashboardService dashboard) {
+        this.boardRepository = boardRepository;
+        this.eventLogRepository = eventLogRepository;
+        this.snapshotCache = snapshotCache;
+        this.jsonMapper = jsonMapper;
+        this.clusterRelay = clusterRelay;
+        this.fanout = fanout;
+        this.dashboard = dashboard;
     }
 
+    /**
+     * Every published change moves the board to a new revision, which retires its cached snapshot.
+     * The event is stamped with that revision and appended to the board's event log in the caller's
+     * transaction. Events are held on that transaction and go out once it commits: one frame per board,
+     * on this node directly and on the others via the relay. Nothing is sent if it rolls back.
+     * All of this runs whether or not anyone is subscribed: changes-since reads the log and other
+     * nodes' subscribers need the relay. Only the local fanout skips idle boards (BoardEventFanout).
+     */
     public void enqueue(BoardEvent<?> event) {
-        BoardEventBuffer.BUFFER.get().add(event);
-        publisher.publishEvent(new AfterCommitEvent(BoardEventBuffer.ensureTxId()));
+        enqueue(event, null);
+    }
+
+    // For card events: cards are the facets of the touched cards before and after the change (see SubscriptionFilter).
+    public void enqueue(BoardEvent<?> event, List<CardFacets> cards) {
+        PendingEvents pending = pendingEvents();
+
+        long revision = boardRepository.bumpRevision(event.boardId());
+        snapshotCache.evict(event.boardId());
+
+        BoardEvent<?> stamped = event.withRevision(revision);
+        byte[] json = jsonMapper.writeValueAsBytes(stamped);
+
+        eventLogRepository.append(
+                stamped.boardId(),
+                revision,
+                stamped.eventId(),
+                stamped.type().name(),
+                new String(json, StandardCharsets.UTF_8),
+                stamped.ts()
+        );
+
+        pending.add(new EncodedBoardEvent(stamped, json, cards));
+    }
+
+    /**
+     * A user joined, left or changed role on the board: every node drops the cached role, and their
+     * dashboards add or drop the board once the caller's transaction commits.
+     */
+    public void membershipChanged(UUID boardId, UUID userId, boolean member) {
+        requireTransaction();
+
+        clusterRelay.enqueueMembership(boardId, userId, member);
+        afterCommit(() -> dashboard.membershipChanged(boardId, userId, member));
+    }
+
+    // The board is gone for all of its members.
+    public void boardDeleted(UUID boardId) {
+        requireTransaction();
+
+        clusterRelay.enqueueMembership(boardId, null, false);
+        afterCommit(() -> dashboard.boardDeleted(boardId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Board events can only be published inside a transaction.");
+        }
+    }
+
+    // The transaction's buffer, registered with it on the first event. Synchronizations are suspended
+    // along with their transaction, so an inner REQUIRES_NEW transaction gets a buffer of its own.
+    private PendingEvents pendingEvents() {
+        requireTransaction();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents pending && pending.owner() == this) return pending;
+        }
+
+        PendingEvents pending = new PendingEvents();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private final class PendingEvents implements TransactionSynchronization {
+        private final Map<UUID, List<EncodedBoardEvent>> byBoard = new LinkedHashMap<>();
+
+        BoardEventPublisher owner() {
+            return BoardEventPublisher.this;
+        }
+
+        void add(EncodedBoardEvent encoded) {
+            byBoard.computeIfAbsent(encoded.event().boardId(), id -> new ArrayList<>()).add(encoded);
+        }
+
+        // Still inside the transaction: the notification is delivered only if it commits.
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            byBoard.forEach((boardId, events) -> clusterRelay.enqueue(
+                    boardId,
+                    events.getFirst().event().revision(),
+                    events.getLast().event().revision()
+            ));
+        }
+
+        @Override
+        public void afterCommit() {
+            byBoard.forEach(fanout::send);
+        }
     }
 }
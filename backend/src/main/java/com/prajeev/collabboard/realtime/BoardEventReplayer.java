@@ -0,0 +1,73 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.domain.BoardEventLogEntry;
+import com.prajeev.collabboard.service.BoardEventLogService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumes a board subscription from the event log. A SUBSCRIBE to /topic/boards/{id} carrying a
+ * last-revision header gets every logged event after that revision in one frame, sent to that subscription only.
+ * Live events may interleave with the replay; clients apply events in revision order.
+ * When the log can't cover the gap the subscriber gets a single RESYNC_REQUIRED event instead.
+ */
+@Component
+public class BoardEventReplayer {
+    public static final String LAST_REVISION_HEADER = "last-revision";
+
+    private final BoardEventLogService eventLog;
+    private final MessageChannel clientOutboundChannel;
+    private final JsonMapper jsonMapper;
+    private final EventEncoders encoders;
+
+    public BoardEventReplayer(BoardEventLogService eventLog, @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel, JsonMapper jsonMapper, EventEncoders encoders) {
+        this.eventLog = eventLog;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.jsonMapper = jsonMapper;
+        this.encoders = encoders;
+    }
+
+    // Runs after the SUBSCRIBE passed StompAuthChannelInterceptor (membership and header checked there).
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID boardId = BoardTopics.boardIdOf(accessor.getDestination());
+        String lastRevision = accessor.getFirstNativeHeader(LAST_REVISION_HEADER);
+        if (boardId == null || lastRevision == null) return;
+
+        var missed = eventLog.eventsSince(boardId, Long.parseLong(lastRevision));
+
+        if (missed.isEmpty()) {
+            BoardEvent<Void> resync = BoardEvent.of(boardId, BoardEventType.RESYNC_REQUIRED, null);
+            send(accessor, jsonMapper.writeValueAsBytes(resync));
+            return;
+        }
+
+        List<byte[]> events = missed.get().stream()
+                .map(BoardEventLogEntry::getPayload)
+                .map(json -> json.getBytes(StandardCharsets.UTF_8))
+                .toList();
+        if (!events.isEmpty()) send(accessor, BoardEventMessages.batch(events));
+    }
+
+    // In the session's negotiated encoding; the destination is the (encoding specific) one it subscribed to.
+    private void send(StompHeaderAccessor subscribe, byte[] json) {
+        EventEncoding encoding = EventEncoding.ofSession(subscribe.getSessionAttributes());
+        clientOutboundChannel.send(BoardEventMessages.frameToSubscriber(
+                encoders.transcode(json, encoding),
+                encoding,
+                subscribe.getSessionId(),
+                subscribe.getSubscriptionId(),
+                subscribe.getDestination()
+        ));
+    }
+}
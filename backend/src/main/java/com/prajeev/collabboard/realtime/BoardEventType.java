@@ -1,10 +1,24 @@
 package com.prajeev.collabboard.realtime;
 
 public enum BoardEventType {
-    CARD_CREATED,
-    CARD_UPDATED,
-    CARD_MOVED,
-    CARD_DELETED,
-    LIST_CREATED,
-    LIST_DELETED
+    CARD_CREATED(CardCreatedData.class),
+    CARD_UPDATED(CardUpdatedData.class),
+    CARD_MOVED(CardMovedData.class),
+    CARDS_MOVED(CardsMovedData.class),
+    CARD_DELETED(CardDeletedData.class),
+    LIST_CREATED(ListCreatedData.class),
+    LIST_DELETED(ListDeletedData.class),
+    // Not a board change: tells one subscriber its missed events can't be replayed.
+    RESYNC_REQUIRED(Void.class);
+
+    private final Class<?> dataType;
+
+    BoardEventType(Class<?> dataType) {
+        this.dataType = dataType;
+    }
+
+    // What BoardEvent.data holds for this type, for reading logged events back.
+    public Class<?> dataType() {
+        return dataType;
+    }
 }
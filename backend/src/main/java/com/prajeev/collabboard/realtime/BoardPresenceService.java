@@ -0,0 +1,262 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.dto.PresenceUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Who is on a board right now, where their pointer is and which card they are dragging. In memory only:
+ * nothing here touches the database, the event log or the board event dispatcher, and other nodes keep
+ * their own presence (a client sees the viewers connected to the same node).
+ *  - A session is present on a board while it is subscribed to /topic/boards/{id}/presence.
+ *  - Updates (SEND to /app/boards/{id}/presence) only replace the sender's entry; a board's changes
+ *    go out together at most max-rate times a second, so a sender is never relayed more often than that
+ *    however fast it sends.
+ *  - Entries leave on UNSUBSCRIBE and DISCONNECT, or after ttl without an update (clients heartbeat).
+ */
+@Component
+public class BoardPresenceService implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(BoardPresenceService.class);
+
+    private record Present(PresenceEntry entry, long lastSeen) {
+
+    }
+
+    // Guarded by the boards map: only read or changed inside compute calls for the board's key.
+    private static final class BoardPresence {
+        private final Map<String, Present> bySession = new LinkedHashMap<>();
+        private final Set<String> dirty = new LinkedHashSet<>();
+        private final Set<String> left = new LinkedHashSet<>();
+    }
+
+    private static final class SessionPresence {
+        private final String clientId = UUID.randomUUID().toString();
+        private final UUID userId;
+        // subscriptionId -> boardId
+        private final Map<String, UUID> subscriptions = new ConcurrentHashMap<>();
+
+        private SessionPresence(UUID userId) {
+            this.userId = userId;
+        }
+    }
+
+    private final SimpMessagingTemplate ws;
+    private final MessageChannel clientOutboundChannel;
+    private final JsonMapper jsonMapper;
+    private final long ttlNanos;
+    private final Counter merged;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<UUID, BoardPresence> boards = new ConcurrentHashMap<>();
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+
+    public BoardPresenceService(
+            SimpMessagingTemplate ws,
+            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.realtime.presence.max-rate:10}") int maxRate,
+            @Value("${app.realtime.presence.ttl:PT30S}") Duration ttl
+    ) {
+        if (maxRate <= 0) {
+            throw new IllegalArgumentException("app.realtime.presence.max-rate must be positive: " + maxRate);
+        }
+
+        this.ws = ws;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.jsonMapper = jsonMapper;
+        this.ttlNanos = ttl.toNanos();
+
+        this.merged = Counter.builder("board.presence.updates.merged")
+                .description("Presence updates replaced by a later update of the same sender before being sent")
+                .register(meterRegistry);
+        Gauge.builder("board.presence.sessions", sessions, Map::size)
+                .description("Sessions subscribed to a board's presence on this node")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("board-presence").daemon().factory()
+        );
+        long flushMicros = 1_000_000L / maxRate;
+        scheduler.scheduleAtFixedRate(() -> safely("flush", this::flush), flushMicros, flushMicros, TimeUnit.MICROSECONDS);
+        scheduler.scheduleAtFixedRate(() -> safely("expire", this::expire), 1, 1, TimeUnit.SECONDS);
+    }
+
+    // Runs after the SUBSCRIBE passed StompAuthChannelInterceptor (membership checked there).
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID boardId = BoardTopics.presenceBoardIdOf(accessor.getDestination());
+        Principal user = event.getUser();
+        if (boardId == null || user == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+
+        SessionPresence session = sessions.computeIfAbsent(accessor.getSessionId(), id -> new SessionPresence(UUID.fromString(user.getName())));
+        session.subscriptions.put(accessor.getSubscriptionId(), boardId);
+        put(boardId, accessor.getSessionId(), session, null);
+
+        List<PresenceEntry> present = new ArrayList<>();
+        boards.computeIfPresent(boardId, (id, board) -> {
+            for (Present p : board.bySession.values()) present.add(p.entry());
+            return board;
+        });
+
+        PresenceFrame snapshot = new PresenceFrame(boardId, true, session.clientId, present, List.of());
+        clientOutboundChannel.send(BoardEventMessages.frameToSubscriber(
+                jsonMapper.writeValueAsBytes(snapshot),
+                EventEncoding.JSON,
+                accessor.getSessionId(),
+                accessor.getSubscriptionId(),
+                accessor.getDestination()
+        ));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionPresence session = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if (session == null || accessor.getSubscriptionId() == null) return;
+
+        UUID boardId = session.subscriptions.remove(accessor.getSubscriptionId());
+        if (boardId != null && !session.subscriptions.containsValue(boardId)) {
+            leave(boardId, accessor.getSessionId(), session);
+        }
+    }
+
+    // Can arrive more than once for a session; only the first one finds anything to remove.
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionPresence session = sessions.remove(event.getSessionId());
+        if (session == null) return;
+
+        for (UUID boardId : new HashSet<>(session.subscriptions.values())) {
+            leave(boardId, event.getSessionId(), session);
+        }
+    }
+
+    /**
+     * Replaces the session's presence on the board. Ignored unless the session is subscribed to the
+     * board's presence: only viewers show up.
+     */
+    public void update(UUID boardId, String sessionId, PresenceUpdate update) {
+        SessionPresence session = sessionId == null ? null : sessions.get(sessionId);
+        if (session == null || !session.subscriptions.containsValue(boardId)) return;
+
+        put(boardId, sessionId, session, update);
+    }
+
+    private void put(UUID boardId, String sessionId, SessionPresence session, PresenceUpdate update) {
+        PresenceEntry entry = update == null
+                ? new PresenceEntry(session.clientId, session.userId, null, null, null)
+                : new PresenceEntry(session.clientId, session.userId, finiteOrNull(update.x()), finiteOrNull(update.y()), update.draggingCardId());
+
+        boards.compute(boardId, (id, board) -> {
+            if (board == null) board = new BoardPresence();
+
+            board.bySession.put(sessionId, new Present(entry, System.nanoTime()));
+            board.left.remove(session.clientId);
+            if (!board.dirty.add(sessionId)) merged.increment();
+            return board;
+        });
+    }
+
+    private void leave(UUID boardId, String sessionId, SessionPresence session) {
+        boards.computeIfPresent(boardId, (id, board) -> {
+            if (board.bySession.remove(sessionId) != null) {
+                board.dirty.remove(sessionId);
+                board.left.add(session.clientId);
+            }
+            return board;
+        });
+    }
+
+    // Sends every board's changes since the last flush as one frame; forgets boards nobody is on.
+    private void flush() {
+        for (UUID boardId : boards.keySet()) {
+            List<PresenceFrame> frame = new ArrayList<>(1);
+
+            boards.computeIfPresent(boardId, (id, board) -> {
+                if (!board.dirty.isEmpty() || !board.left.isEmpty()) {
+                    List<PresenceEntry> changed = new ArrayList<>(board.dirty.size());
+                    for (String sessionId : board.dirty) changed.add(board.bySession.get(sessionId).entry());
+
+                    frame.add(new PresenceFrame(id, false, null, changed, List.copyOf(board.left)));
+                    board.dirty.clear();
+                    board.left.clear();
+                }
+                return board.bySession.isEmpty() ? null : board;
+            });
+
+            if (!frame.isEmpty()) {
+                byte[] json = jsonMapper.writeValueAsBytes(frame.getFirst());
+                ws.send(BoardTopics.presenceOf(boardId), BoardEventMessages.frame(json, EventEncoding.JSON));
+            }
+        }
+    }
+
+    // Drops entries whose session stopped sending (no heartbeat for ttl); they come back with the next update.
+    private void expire() {
+        long cutoff = System.nanoTime() - ttlNanos;
+
+        for (UUID boardId : boards.keySet()) {
+            boards.computeIfPresent(boardId, (id, board) -> {
+                var it = board.bySession.entrySet().iterator();
+                while (it.hasNext()) {
+                    var e = it.next();
+                    if (e.getValue().lastSeen() - cutoff >= 0) continue;
+
+                    it.remove();
+                    board.dirty.remove(e.getKey());
+                    board.left.add(e.getValue().entry().clientId());
+                }
+                return board;
+            });
+        }
+    }
+
+    private static Double finiteOrNull(Double value) {
+        return value == null || !Double.isFinite(value) ? null : value;
+    }
+
+    private static void safely(String task, Runnable run) {
+        try {
+            run.run();
+        } catch (Exception e) {
+            log.warn("Presence {} failed: {}", task, e.toString());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.prajeev.collabboard.realtime;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live board subscriptions on this node, per board, encoding and filter. Fed by the SUBSCRIBE, UNSUBSCRIBE
+ * and DISCONNECT events of sessions that passed StompAuthChannelInterceptor; fanout uses it to skip boards
+ * (and encodings) nobody here is listening to, and to find the distinct filters to evaluate.
+ * Other nodes keep their own registry: publishing still logs and relays every event.
+ */
+@Component
+public class BoardSubscriptionRegistry {
+    // One broker topic of a board: what its subscribers get, and in which encoding.
+    public record BoardFeed(EventEncoding encoding, SubscriptionFilter filter) {
+
+    }
+
+    private record Subscription(UUID boardId, BoardFeed feed) {
+
+    }
+
+    public record BoardSubscribers(UUID boardId, int subscribers, Map<EventEncoding, Integer> byEncoding, int filters) {
+
+    }
+
+    // sessionId -> subscriptionId -> board subscription
+    private final Map<String, Map<String, Subscription>> sessions = new ConcurrentHashMap<>();
+    // boardId -> subscriber count per feed; maps are replaced, never mutated once published
+    private final Map<UUID, Map<BoardFeed, Integer>> counts = new ConcurrentHashMap<>();
+
+    public BoardSubscriptionRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("board.subscriptions.active", this, r -> r.totalSubscribers())
+                .description("Live board topic subscriptions on this node")
+                .register(meterRegistry);
+        Gauge.builder("board.subscriptions.boards", counts, Map::size)
+                .description("Boards with at least one live subscription on this node")
+                .register(meterRegistry);
+    }
+
+    public boolean hasSubscribers(UUID boardId) {
+        return counts.containsKey(boardId);
+    }
+
+    public boolean hasSubscribers(UUID boardId, EventEncoding encoding) {
+        Map<BoardFeed, Integer> board = counts.get(boardId);
+        if (board == null) return false;
+
+        for (BoardFeed feed : board.keySet()) {
+            if (feed.encoding() == encoding) return true;
+        }
+        return false;
+    }
+
+    // The feeds of the board with at least one subscriber.
+    public Set<BoardFeed> feeds(UUID boardId) {
+        Map<BoardFeed, Integer> board = counts.get(boardId);
+        return board == null ? Set.of() : board.keySet();
+    }
+
+    public BoardSubscribers subscribers(UUID boardId) {
+        return toSubscribers(boardId, counts.get(boardId));
+    }
+
+    // Boards with the most subscribers first.
+    public List<BoardSubscribers> busiest(int limit) {
+        return counts.entrySet().stream()
+                .map(e -> toSubscribers(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingInt(BoardSubscribers::subscribers).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public int totalSubscribers() {
+        int total = 0;
+        for (Map<BoardFeed, Integer> board : counts.values()) total += sum(board);
+        return total;
+    }
+
+    public int boardCount() {
+        return counts.size();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID boardId = BoardTopics.boardIdOf(accessor.getDestination());
+        if (boardId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+
+        BoardFeed feed = new BoardFeed(
+                EventEncoding.ofSession(accessor.getSessionAttributes()),
+                BoardTopics.filterOf(accessor.getDestination())
+        );
+        Subscription subscription = new Subscription(boardId, feed);
+        Subscription replaced = sessions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), subscription);
+
+        if (replaced != null) adjust(replaced, -1);
+        adjust(subscription, 1);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Subscription> session = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if (session == null || accessor.getSubscriptionId() == null) return;
+
+        Subscription removed = session.remove(accessor.getSubscriptionId());
+        if (removed != null) adjust(removed, -1);
+    }
+
+    // Can arrive more than once for a session; only the first one finds anything to remove.
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Subscription> session = sessions.remove(event.getSessionId());
+        if (session == null) return;
+
+        for (Subscription subscription : session.values()) {
+            adjust(subscription, -1);
+        }
+    }
+
+    private void adjust(Subscription subscription, int delta) {
+        counts.compute(subscription.boardId(), (id, board) -> {
+            Map<BoardFeed, Integer> next = board == null ? new HashMap<>() : new HashMap<>(board);
+            int count = next.getOrDefault(subscription.feed(), 0) + delta;
+            if (count > 0) next.put(subscription.feed(), count);
+            else next.remove(subscription.feed());
+            return next.isEmpty() ? null : Map.copyOf(next);
+        });
+    }
+
+    private static BoardSubscribers toSubscribers(UUID boardId, Map<BoardFeed, Integer> board) {
+        Map<EventEncoding, Integer> byEncoding = new EnumMap<>(EventEncoding.class);
+        Set<SubscriptionFilter> filters = new HashSet<>();
+        if (board != null) {
+            board.forEach((feed, n) -> {
+                byEncoding.merge(feed.encoding(), n, Integer::sum);
+                if (!feed.filter().isAll()) filters.add(feed.filter());
+            });
+        }
+        return new BoardSubscribers(boardId, board == null ? 0 : sum(board), byEncoding, filters.size());
+    }
+
+    private static int sum(Map<BoardFeed, Integer> board) {
+        int total = 0;
+        for (int n : board.values()) total += n;
+        return total;
+    }
+}
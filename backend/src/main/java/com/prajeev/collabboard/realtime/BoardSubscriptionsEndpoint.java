@@ -0,0 +1,40 @@
+package com.prajeev.collabboard.realtime;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * /actuator/boardsubscriptions: live subscriber counts on this node, for capacity planning.
+ * The bare endpoint lists the busiest boards; /actuator/boardsubscriptions/{boardId} gives one board.
+ * Not exposed over HTTP by default; once exposed it is admin-only (see SecurityConfig).
+ */
+@Component
+@Endpoint(id = "boardsubscriptions")
+public class BoardSubscriptionsEndpoint {
+    private static final int BUSIEST_LIMIT = 100;
+
+    private final BoardSubscriptionRegistry registry;
+
+    public BoardSubscriptionsEndpoint(BoardSubscriptionRegistry registry) {
+        this.registry = registry;
+    }
+
+    public record Summary(int subscribers, int boards, List<BoardSubscriptionRegistry.BoardSubscribers> busiest) {
+
+    }
+
+    @ReadOperation
+    public Summary summary() {
+        return new Summary(registry.totalSubscribers(), registry.boardCount(), registry.busiest(BUSIEST_LIMIT));
+    }
+
+    @ReadOperation
+    public BoardSubscriptionRegistry.BoardSubscribers board(@Selector UUID boardId) {
+        return registry.subscribers(boardId);
+    }
+}
@@ -0,0 +1,13 @@
+package com.prajeev.collabboard.realtime;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// A board as the dashboard shows it. lastActivityAt is null when nothing happened within the event log's retention.
+public record BoardSummary(UUID boardId,
+                           String name,
+                           long revision,
+                           long cardCount,
+                           Instant lastActivityAt) {
+
+}
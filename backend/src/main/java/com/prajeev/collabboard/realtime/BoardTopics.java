@@ -0,0 +1,68 @@
+package com.prajeev.collabboard.realtime;
+
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class BoardTopics {
+    // A board topic, optionally with the suffix of a binary encoding (see EventEncoding) and a
+    // subscription filter in canonical form (see SubscriptionFilter).
+    public static final Pattern BOARD_TOPIC = Pattern.compile("^/topic/boards/([0-9a-fA-F-]{36})(\\.[a-z]+)?(?:/filter/([^/]+))?$");
+    // Ephemeral presence and live-drag state of a board (see BoardPresenceService); never logged or replayed.
+    public static final Pattern PRESENCE_TOPIC = Pattern.compile("^/topic/boards/([0-9a-fA-F-]{36})/presence$");
+    // Where clients SEND their own presence updates.
+    public static final Pattern PRESENCE_UPDATE = Pattern.compile("^/app/boards/([0-9a-fA-F-]{36})/presence$");
+
+    private BoardTopics() {
+
+    }
+
+    public static String of(UUID boardId) {
+        return "/topic/boards/" + boardId;
+    }
+
+    // Where the board's events go in the given encoding; sessions using it are subscribed there.
+    public static String of(UUID boardId, EventEncoding encoding) {
+        return of(boardId) + encoding.topicSuffix();
+    }
+
+    // Where the board's events matching filter go in the given encoding; every distinct filter has its own topic.
+    public static String of(UUID boardId, EventEncoding encoding, SubscriptionFilter filter) {
+        return filter.isAll() ? of(boardId, encoding) : of(boardId, encoding) + "/filter/" + filter.canonical();
+    }
+
+    public static String presenceOf(UUID boardId) {
+        return of(boardId) + "/presence";
+    }
+
+    // Board id of a /topic/boards/{id} destination (in any encoding, with or without filter), or null for any other destination.
+    public static UUID boardIdOf(String destination) {
+        return match(BOARD_TOPIC, destination);
+    }
+
+    // Filter of a board topic (ALL for an unfiltered one), or null for any other destination.
+    public static SubscriptionFilter filterOf(String destination) {
+        if (destination == null) return null;
+
+        Matcher m = BOARD_TOPIC.matcher(destination);
+        if (!m.matches()) return null;
+        return m.group(3) == null ? SubscriptionFilter.ALL : SubscriptionFilter.parse(m.group(3), null);
+    }
+
+    // Board id of a /topic/boards/{id}/presence destination, or null for any other destination.
+    public static UUID presenceBoardIdOf(String destination) {
+        return match(PRESENCE_TOPIC, destination);
+    }
+
+    // Board id of an /app/boards/{id}/presence destination, or null for any other destination.
+    public static UUID presenceUpdateBoardIdOf(String destination) {
+        return match(PRESENCE_UPDATE, destination);
+    }
+
+    private static UUID match(Pattern pattern, String destination) {
+        if (destination == null) return null;
+
+        Matcher m = pattern.matcher(destination);
+        return m.matches() ? UUID.fromString(m.group(1)) : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.domain.CardPriority;
+import com.prajeev.collabboard.dto.CardResponse;
+
+import java.util.UUID;
+
+// What SubscriptionFilter looks at on a card. Server side only, never sent to clients.
+public record CardFacets(UUID listId, UUID assigneeUserId, CardPriority priority) {
+    public static CardFacets of(CardResponse card) {
+        return new CardFacets(card.listId(), card.assigneeUserId(), card.priority());
+    }
+}
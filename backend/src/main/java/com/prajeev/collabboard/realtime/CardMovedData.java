@@ -1,13 +1,14 @@
 package com.prajeev.collabboard.realtime;
 
-import com.prajeev.collabboard.dto.CardResponse;
-
 import java.util.UUID;
 
-public record CardMovedData(CardResponse card,
+// A move changes where the card is and its version, nothing else; clients keep the rest of the card.
+// beforeCardId is the card it now follows in toListId (null: top of the list), which stays right
+// however the ranks are re-spaced, unlike a position that would have to be counted under the lock.
+public record CardMovedData(UUID cardId,
+                            long version,
                             UUID fromListId,
-                            int fromPosition,
                             UUID toListId,
-                            int toPosition) {
+                            UUID beforeCardId) {
 
 }
@@ -1,7 +1,19 @@
 package com.prajeev.collabboard.realtime;
 
-import com.prajeev.collabboard.dto.CardResponse;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A card edit as a delta: changes maps each changed CardResponse field to its new value (null for a
+ * cleared one). It applies to the card at baseVersion and leaves it at version; clients holding any
+ * other version fetch the full card instead.
+ */
+public record CardUpdatedData(UUID cardId,
+                              UUID listId,
+                              long baseVersion,
+                              long version,
+                              Instant updatedAt,
+                              Map<String, Object> changes) {
 
-public record CardUpdatedData(CardResponse card) {
-    
 }
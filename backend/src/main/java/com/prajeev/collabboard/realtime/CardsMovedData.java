@@ -0,0 +1,7 @@
+package com.prajeev.collabboard.realtime;
+
+import java.util.List;
+
+// One event for a whole batch move, in the order the moves were applied.
+public record CardsMovedData(List<CardMovedData> moves) {
+}
@@ -0,0 +1,230 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.domain.BoardEventLogEntry;
+import com.prajeev.collabboard.repository.BoardEventLogRepository;
+import com.prajeev.collabboard.service.BoardAuthService;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fans board events out to the other application nodes over Postgres LISTEN/NOTIFY.
+ *  - enqueue() notifies on the board's partition channel inside the writing transaction, so the
+ *    notification is only delivered if (and after) the change commits. One notification covers all
+ *    of the transaction's events for that board.
+ *  - The notification is only a pointer (node, board, revision range); receivers read the events from
+ *    board_events, which keeps payloads well under NOTIFY's 8000 byte limit.
+ *  - Every node LISTENs on all partitions over one dedicated connection and re-dispatches other nodes'
+ *    events to its local subscribers, reading them only for boards it has subscribers for. Its own
+ *    events were already dispatched locally after commit.
+ * Notifications sent while a node's listen connection is down are lost to it; its subscribers see
+ * the revision gap and re-sync.
+ * Membership changes go over one more channel (enqueueMembership) so every node drops its cached roles
+ * for them and its dashboards add and drop boards. A lost one is corrected by the role cache TTL and
+ * when the dashboard is next subscribed.
+ */
+@Component
+public class ClusterEventRelay implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ClusterEventRelay.class);
+    private static final String CHANNEL_PREFIX = "board_events_";
+    private static final String MEMBERSHIP_CHANNEL = "board_memberships";
+    private static final String ALL_USERS = "*";
+
+    private final UUID nodeId = UUID.randomUUID();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoardEventLogRepository eventLogRepository;
+    private final BoardEventFanout fanout;
+    private final BoardDashboardService dashboard;
+    private final BoardAuthService boardAuthService;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final int partitions;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterEventRelay(
+            JdbcTemplate jdbcTemplate,
+            BoardEventLogRepository eventLogRepository,
+            BoardEventFanout fanout,
+            BoardDashboardService dashboard,
+            BoardAuthService boardAuthService,
+            JsonMapper jsonMapper,
+            @Value("${app.cluster.relay.enabled:true}") boolean enabled,
+            @Value("${app.cluster.relay.partitions:16}") int partitions,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventLogRepository = eventLogRepository;
+        this.fanout = fanout;
+        this.dashboard = dashboard;
+        this.boardAuthService = boardAuthService;
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.partitions = partitions;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Must run inside the transaction that logged revisions fromRevision..toRevision of the board.
+     */
+    public void enqueue(UUID boardId, long fromRevision, long toRevision) {
+        if (!enabled) return;
+
+        String payload = nodeId + ":" + boardId + ":" + fromRevision + ":" + toRevision;
+        jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channelOf(boardId), payload);
+    }
+
+    /**
+     * Must run inside the transaction that changed the membership (joined, left or changed role);
+     * a null userId stands for every member (the board was deleted).
+     */
+    public void enqueueMembership(UUID boardId, UUID userId, boolean member) {
+        if (!enabled) return;
+
+        String payload = nodeId + ":" + boardId + ":" + (userId == null ? ALL_USERS : userId) + ":" + (member ? 1 : 0);
+        jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, MEMBERSHIP_CHANNEL, payload);
+    }
+
+    private String channelOf(UUID boardId) {
+        return CHANNEL_PREFIX + Math.floorMod(boardId.hashCode(), partitions);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) return;
+
+        running = true;
+        listener = Thread.ofPlatform()
+                .name("board-event-relay")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener == null) return;
+
+        listener.interrupt();
+        try {
+            listener.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement st = connection.createStatement()) {
+                    for (int i = 0; i < partitions; i++) {
+                        st.execute("LISTEN " + CHANNEL_PREFIX + i);
+                    }
+                    st.execute("LISTEN " + MEMBERSHIP_CHANNEL);
+                }
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(500);
+                    if (notifications == null) continue;
+
+                    for (PGNotification notification : notifications) {
+                        if (MEMBERSHIP_CHANNEL.equals(notification.getName())) {
+                            dispatchMembership(notification.getParameter());
+                        } else {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+
+                log.warn("Board event relay connection failed, reconnecting: {}", e.toString());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            String[] parts = payload.split(":");
+            if (nodeId.toString().equals(parts[0])) return;
+
+            UUID boardId = UUID.fromString(parts[1]);
+            if (!fanout.hasSubscribers(boardId)) return;
+
+            long fromRevision = Long.parseLong(parts[2]);
+            long toRevision = Long.parseLong(parts[3]);
+
+            // Empty if pruned already or the board was deleted; subscribers re-sync on the gap.
+            List<EncodedBoardEvent> events = eventLogRepository.findByBoardIdAndRevisionBetweenOrderByRevisionAsc(boardId, fromRevision, toRevision).stream()
+                    .map(this::decode)
+                    .toList();
+            fanout.send(boardId, events);
+        } catch (Exception e) {
+            log.warn("Failed to relay board event {}: {}", payload, e.toString());
+        }
+    }
+
+    private void dispatchMembership(String payload) {
+        try {
+            String[] parts = payload.split(":");
+            if (nodeId.toString().equals(parts[0])) return;
+
+            UUID boardId = UUID.fromString(parts[1]);
+            if (ALL_USERS.equals(parts[2])) {
+                boardAuthService.evictBoard(boardId);
+                dashboard.boardDeleted(boardId);
+            } else {
+                UUID userId = UUID.fromString(parts[2]);
+                boardAuthService.evict(boardId, userId);
+                dashboard.membershipChanged(boardId, userId, "1".equals(parts[3]));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to relay membership change {}: {}", payload, e.toString());
+        }
+    }
+
+    // The logged bytes are sent as they are; the typed event is only read for the coalescer.
+    private EncodedBoardEvent decode(BoardEventLogEntry entry) {
+        byte[] json = entry.getPayload().getBytes(StandardCharsets.UTF_8);
+        JavaType type = jsonMapper.getTypeFactory().constructParametricType(
+                BoardEvent.class,
+                BoardEventType.valueOf(entry.getType()).dataType()
+        );
+        return new EncodedBoardEvent(jsonMapper.readValue(json, type), json);
+    }
+}
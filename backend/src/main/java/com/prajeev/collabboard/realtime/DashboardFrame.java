@@ -0,0 +1,14 @@
+package com.prajeev.collabboard.realtime;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What goes out on /user/queue/boards.
+ *  - snapshot: boards is every board the user is a member of and replaces what the client had.
+ *  - otherwise: boards holds the summaries that changed (including boards the user just joined),
+ *    removed the boards the user left or that were deleted.
+ */
+public record DashboardFrame(boolean snapshot, List<BoardSummary> boards, List<UUID> removed) {
+
+}
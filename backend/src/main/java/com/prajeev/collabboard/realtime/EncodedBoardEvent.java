@@ -0,0 +1,16 @@
+package com.prajeev.collabboard.realtime;
+
+import java.util.List;
+
+/**
+ * A published event together with its JSON encoding. The bytes are produced once at enqueue time
+ * and reused for the event log, the local broker send and the cluster relay; the simple broker
+ * hands the same array to every subscriber session.
+ * cards holds the facets of the cards the event touches, before and after it, for filtered
+ * subscriptions; null when not known (non-card events, events relayed from another node).
+ */
+public record EncodedBoardEvent(BoardEvent<?> event, byte[] json, List<CardFacets> cards) {
+    public EncodedBoardEvent(BoardEvent<?> event, byte[] json) {
+        this(event, json, null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.prajeev.collabboard.realtime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Produces the binary encodings of event frames. JSON stays the canonical form (it is what the event
+ * log stores and what the other encodings are transcoded from), so every event type and every path
+ * (live, relayed, replayed) gets the same result.
+ */
+@Component
+public class EventEncoders {
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+    private final SmileMapper smileMapper = SmileMapper.builder().build();
+    private final Set<EventEncoding> enabled = EnumSet.of(EventEncoding.JSON);
+
+    public EventEncoders(JsonMapper jsonMapper, @Value("${app.realtime.binary-encodings:CBOR,SMILE}") List<EventEncoding> binaryEncodings) {
+        this.jsonMapper = jsonMapper;
+        this.enabled.addAll(binaryEncodings);
+    }
+
+    // Encodings fanout has to produce; JSON always, binary ones as configured.
+    public Set<EventEncoding> enabled() {
+        return enabled;
+    }
+
+    /**
+     * Settles the encoding a CONNECT asked for and binds it to the session. Unknown, disabled or
+     * (over SockJS) binary requests get JSON.
+     */
+    public EventEncoding negotiate(String requested, Map<String, Object> sessionAttributes) {
+        if (requested == null || sessionAttributes == null) return EventEncoding.JSON;
+
+        EventEncoding encoding;
+        try {
+            encoding = EventEncoding.valueOf(requested.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return EventEncoding.JSON;
+        }
+
+        boolean binaryFrames = Boolean.TRUE.equals(sessionAttributes.get(EventEncoding.BINARY_FRAMES_ATTRIBUTE));
+        if (!enabled.contains(encoding) || (encoding != EventEncoding.JSON && !binaryFrames)) {
+            return EventEncoding.JSON;
+        }
+
+        EventEncoding.bindToSession(sessionAttributes, encoding);
+        return encoding;
+    }
+
+    // A JSON frame (one event or an array of them) in the given encoding.
+    public byte[] transcode(byte[] json, EventEncoding encoding) {
+        return switch (encoding) {
+            case JSON -> json;
+            case CBOR -> transcode(json, cborMapper);
+            case SMILE -> transcode(json, smileMapper);
+        };
+    }
+
+    private byte[] transcode(byte[] json, ObjectMapper target) {
+        return target.writeValueAsBytes(jsonMapper.readTree(json));
+    }
+}
@@ -0,0 +1,57 @@
+package com.prajeev.collabboard.realtime;
+
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How board events are encoded for one STOMP session, requested with an event-encoding header on
+ * CONNECT and kept in the session attributes. JSON is the default.
+ * Binary encodings go out as application/octet-stream, which is what makes Spring send them as
+ * binary WebSocket frames; the event-encoding header on every MESSAGE names the actual format.
+ * SockJS can only carry text, so binary encodings are only granted on the plain WebSocket endpoint.
+ */
+public enum EventEncoding {
+    JSON("", MimeTypeUtils.APPLICATION_JSON),
+    CBOR(".cbor", MimeTypeUtils.APPLICATION_OCTET_STREAM),
+    SMILE(".smile", MimeTypeUtils.APPLICATION_OCTET_STREAM);
+
+    public static final String HEADER = "event-encoding";
+    // Set by the plain WebSocket endpoint's handshake; sessions without it are SockJS.
+    public static final String BINARY_FRAMES_ATTRIBUTE = EventEncoding.class.getName() + ".BINARY_FRAMES";
+    private static final String SESSION_ATTRIBUTE = EventEncoding.class.getName();
+
+    private final String topicSuffix;
+    private final MimeType contentType;
+
+    EventEncoding(String topicSuffix, MimeType contentType) {
+        this.topicSuffix = topicSuffix;
+        this.contentType = contentType;
+    }
+
+    String topicSuffix() {
+        return topicSuffix;
+    }
+
+    MimeType contentType() {
+        return contentType;
+    }
+
+    String headerValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // The encoding negotiated for the session (JSON when none was).
+    public static EventEncoding ofSession(Map<String, Object> sessionAttributes) {
+        if (sessionAttributes == null) return JSON;
+
+        Object encoding = sessionAttributes.get(SESSION_ATTRIBUTE);
+        return encoding instanceof EventEncoding e ? e : JSON;
+    }
+
+    static void bindToSession(Map<String, Object> sessionAttributes, EventEncoding encoding) {
+        sessionAttributes.put(SESSION_ATTRIBUTE, encoding);
+    }
+}
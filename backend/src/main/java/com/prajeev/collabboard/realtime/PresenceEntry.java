@@ -0,0 +1,12 @@
+package com.prajeev.collabboard.realtime;
+
+import java.util.UUID;
+
+// One connection's presence on a board. clientId is opaque and stable for the connection; a user may have several.
+public record PresenceEntry(String clientId,
+                            UUID userId,
+                            Double x,
+                            Double y,
+                            UUID draggingCardId) {
+
+}
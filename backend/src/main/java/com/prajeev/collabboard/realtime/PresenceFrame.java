@@ -0,0 +1,19 @@
+package com.prajeev.collabboard.realtime;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What goes out on /topic/boards/{id}/presence.
+ *  - snapshot: present is everyone on the board and replaces what the client had; only sent to a new
+ *    subscriber, with its own clientId in you.
+ *  - otherwise: present holds the entries that changed since the last frame, left the clientIds that
+ *    disconnected, unsubscribed or timed out.
+ */
+public record PresenceFrame(UUID boardId,
+                            boolean snapshot,
+                            String you,
+                            List<PresenceEntry> present,
+                            List<String> left) {
+
+}
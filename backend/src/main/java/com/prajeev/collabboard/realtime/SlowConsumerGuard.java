@@ -0,0 +1,234 @@
+package com.prajeev.collabboard.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one slow WebSocket session from piling up frames on this node.
+ *  - Counts every session's frames between clientOutboundChannel and the socket: queued in the
+ *    outbound executor or in the session's send buffer, not yet written.
+ *  - Past max-queued frames (or max-queued-size bytes) the session is slow, and the policy applies:
+ *    DISCONNECT closes it; RESYNC drops its board event frames until everything queued is written,
+ *    then sends a single RESYNC_REQUIRED to each board subscription that lost frames (the client
+ *    re-syncs over REST). Other frames (replies, presence, dashboard) still go out.
+ * The transport limits in WebSocketConfig stay the backstop: a session that can't take even that is
+ * terminated by Spring. Set max-queued-size below the send buffer limit so the policy applies first.
+ */
+@Component
+public class SlowConsumerGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+    private static final Logger log = LoggerFactory.getLogger(SlowConsumerGuard.class);
+
+    public enum Policy { DISCONNECT, RESYNC }
+
+    private static final String SLOW_CONSUMER = "slow_consumer";
+
+    private static final class Outbound {
+        private final WebSocketSession session;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong queuedBytes = new AtomicLong();
+        // subscriptionId -> destination, for the board subscriptions that lost frames while slow
+        private final Map<String, String> dropped = new ConcurrentHashMap<>();
+        private volatile String closeReason;
+
+        private Outbound(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    private final MessageChannel clientOutboundChannel;
+    private final EventEncoders encoders;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final Policy policy;
+    private final int maxQueued;
+    private final long maxQueuedBytes;
+    private final DistributionSummary queuedAhead;
+    private final Counter droppedFrames;
+    private final Counter slowSessions;
+
+    private final Map<String, Outbound> sessions = new ConcurrentHashMap<>();
+
+    public SlowConsumerGuard(
+            // Lazy: the channel is built from WebSocketConfig, which registers this guard on it.
+            @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+            EventEncoders encoders,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.realtime.slow-consumer.policy:RESYNC}") Policy policy,
+            @Value("${app.realtime.slow-consumer.max-queued:256}") int maxQueued,
+            @Value("${app.realtime.slow-consumer.max-queued-size:256KB}") DataSize maxQueuedSize
+    ) {
+        if (maxQueued <= 0) {
+            throw new IllegalArgumentException("app.realtime.slow-consumer.max-queued must be positive: " + maxQueued);
+        }
+
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.encoders = encoders;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.policy = policy;
+        this.maxQueued = maxQueued;
+        this.maxQueuedBytes = maxQueuedSize.toBytes();
+
+        this.queuedAhead = DistributionSummary.builder("websocket.session.outbound.queued")
+                .description("Frames already queued for the session when another one is sent to it")
+                .register(meterRegistry);
+        Gauge.builder("websocket.session.outbound.queued.max", this, SlowConsumerGuard::maxQueuedNow)
+                .description("Largest number of frames queued for one session right now")
+                .register(meterRegistry);
+        this.droppedFrames = Counter.builder("websocket.session.outbound.dropped")
+                .description("Frames not sent because their session was slow")
+                .register(meterRegistry);
+        this.slowSessions = Counter.builder("websocket.session.slow")
+                .tag("policy", policy.name().toLowerCase())
+                .description("Times a session fell behind by more than max-queued")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Outbound out = sessionId == null ? null : sessions.get(sessionId);
+        if (out == null) return message;
+
+        int size = message.getPayload() instanceof byte[] bytes ? bytes.length : 0;
+        boolean slow = out.queued.get() >= maxQueued || out.queuedBytes.get() + size > maxQueuedBytes;
+
+        if ((slow || !out.dropped.isEmpty()) && !admitWhileSlow(out, message)) {
+            droppedFrames.increment();
+            return null;
+        }
+
+        queuedAhead.record(out.queued.getAndIncrement());
+        out.queuedBytes.addAndGet(size);
+        return message;
+    }
+
+    private boolean admitWhileSlow(Outbound out, Message<?> message) {
+        if (policy == Policy.DISCONNECT) {
+            if (out.closeReason == null) {
+                out.closeReason = SLOW_CONSUMER;
+                slowSessions.increment();
+                close(out);
+            }
+            return false;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        if (BoardTopics.boardIdOf(destination) == null || subscriptionId == null) return true;
+
+        if (out.dropped.isEmpty()) slowSessions.increment();
+        out.dropped.put(subscriptionId, destination);
+        return false;
+    }
+
+    // Called after a frame reached the socket (or failed to).
+    private void written(Outbound out, int size) {
+        out.queuedBytes.updateAndGet(b -> Math.max(0, b - size));
+        if (out.queued.updateAndGet(q -> Math.max(0, q - 1)) > 0 || out.dropped.isEmpty()) return;
+
+        // Caught up: whatever was dropped is replaced by one marker per subscription.
+        EventEncoding encoding = EventEncoding.ofSession(out.session.getAttributes());
+        for (String subscriptionId : Map.copyOf(out.dropped).keySet()) {
+            String destination = out.dropped.remove(subscriptionId);
+            if (destination == null) continue;
+
+            UUID boardId = BoardTopics.boardIdOf(destination);
+            byte[] resync = jsonMapper.writeValueAsBytes(BoardEvent.of(boardId, BoardEventType.RESYNC_REQUIRED, null));
+            clientOutboundChannel.send(BoardEventMessages.frameToSubscriber(
+                    encoders.transcode(resync, encoding),
+                    encoding,
+                    out.session.getId(),
+                    subscriptionId,
+                    destination
+            ));
+        }
+    }
+
+    private void close(Outbound out) {
+        try {
+            out.session.close(CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer"));
+        } catch (IOException e) {
+            log.debug("Closing slow session {} failed: {}", out.session.getId(), e.toString());
+        }
+    }
+
+    private double maxQueuedNow() {
+        int max = 0;
+        for (Outbound out : sessions.values()) max = Math.max(max, out.queued.get());
+        return max;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                Outbound out = new Outbound(session);
+                sessions.put(session.getId(), out);
+
+                super.afterConnectionEstablished(new WebSocketSessionDecorator(session) {
+                    @Override
+                    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+                        try {
+                            super.sendMessage(message);
+                        } finally {
+                            written(out, message.getPayloadLength());
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                Outbound out = sessions.remove(session.getId());
+                String reason = out != null && out.closeReason != null ? out.closeReason : reasonOf(closeStatus);
+                meterRegistry.counter("websocket.session.disconnects", "reason", reason).increment();
+
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private static String reasonOf(CloseStatus status) {
+        return switch (status.getCode()) {
+            case 1000 -> "normal";
+            case 1001 -> "going_away";
+            case 1006 -> "abnormal";
+            case 1009 -> "message_too_big";
+            case 1011 -> "server_error";
+            // What Spring closes with when a session exceeds the send time or buffer limit.
+            case 4500 -> "send_limit_exceeded";
+            default -> "other";
+        };
+    }
+}
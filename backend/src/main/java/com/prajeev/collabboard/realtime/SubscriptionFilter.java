@@ -0,0 +1,130 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.domain.CardPriority;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Card filter of a board subscription, from the SUBSCRIBE "filter" header:
+ *     lists=<listId>,...;assignees=<userId>|me,...;priorities=LOW|MEDIUM|HIGH,...
+ * An event matches when one of the cards it touches, before or after the change, matches every given
+ * dimension (any of its values); an absent dimension matches every card. Without the header a
+ * subscription gets every event (ALL).
+ * Events that aren't about cards, and card events whose facets aren't known, always match: a filtered
+ * subscriber may get more than it asked for, never less.
+ */
+public record SubscriptionFilter(Set<UUID> lists, Set<UUID> assignees, Set<CardPriority> priorities) {
+    public static final String HEADER = "filter";
+    public static final SubscriptionFilter ALL = new SubscriptionFilter(Set.of(), Set.of(), Set.of());
+
+    static final int MAX_VALUES = 50;
+
+    public SubscriptionFilter {
+        lists = Set.copyOf(lists);
+        assignees = Set.copyOf(assignees);
+        priorities = Set.copyOf(priorities);
+    }
+
+    public boolean isAll() {
+        return lists.isEmpty() && assignees.isEmpty() && priorities.isEmpty();
+    }
+
+    public boolean matches(EncodedBoardEvent encoded) {
+        if (isAll() || encoded.cards() == null) return true;
+
+        for (CardFacets card : encoded.cards()) {
+            if (matches(card)) return true;
+        }
+        return false;
+    }
+
+    private boolean matches(CardFacets card) {
+        return (lists.isEmpty() || lists.contains(card.listId()))
+                && (assignees.isEmpty() || (card.assigneeUserId() != null && assignees.contains(card.assigneeUserId())))
+                && (priorities.isEmpty() || priorities.contains(card.priority()));
+    }
+
+    /**
+     * Parses a filter header; "me" stands for the subscribing user. Null or blank is ALL.
+     * Throws IllegalArgumentException for anything malformed or too large.
+     */
+    public static SubscriptionFilter parse(String spec, UUID me) {
+        if (spec == null || spec.isBlank()) return ALL;
+
+        Set<UUID> lists = Set.of();
+        Set<UUID> assignees = Set.of();
+        Set<CardPriority> priorities = Set.of();
+
+        for (String part : spec.split(";", -1)) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Invalid " + HEADER + " header: " + spec);
+
+            String key = part.substring(0, eq).trim();
+            List<String> values = values(part.substring(eq + 1), spec);
+
+            switch (key) {
+                case "lists" -> lists = parseAll(values, SubscriptionFilter::uuid);
+                case "assignees" -> assignees = parseAll(values, v -> "me".equals(v) && me != null ? me : uuid(v));
+                case "priorities" -> priorities = parseAll(values, SubscriptionFilter::priority);
+                default -> throw new IllegalArgumentException("Unknown " + HEADER + " dimension: " + key);
+            }
+        }
+        return new SubscriptionFilter(lists, assignees, priorities);
+    }
+
+    /**
+     * The filter in header syntax with its values sorted, so equal filters give equal strings.
+     * Used in the broker topic of the filter's subscribers (see BoardTopics).
+     */
+    public String canonical() {
+        StringJoiner out = new StringJoiner(";");
+        append(out, "lists", lists);
+        append(out, "assignees", assignees);
+        append(out, "priorities", priorities);
+        return out.toString();
+    }
+
+    private static List<String> values(String raw, String spec) {
+        List<String> values = Arrays.stream(raw.split(",", -1)).map(String::trim).toList();
+        if (values.isEmpty() || values.stream().anyMatch(String::isEmpty)) {
+            throw new IllegalArgumentException("Invalid " + HEADER + " header: " + spec);
+        }
+        if (values.size() > MAX_VALUES) {
+            throw new IllegalArgumentException("Too many values in " + HEADER + " header (max " + MAX_VALUES + ")");
+        }
+        return values;
+    }
+
+    private static <T> Set<T> parseAll(List<String> values, Function<String, T> parser) {
+        return values.stream().map(parser).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static UUID uuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid id in " + HEADER + " header: " + value);
+        }
+    }
+
+    private static CardPriority priority(String value) {
+        try {
+            return CardPriority.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid priority in " + HEADER + " header: " + value);
+        }
+    }
+
+    private static void append(StringJoiner out, String key, Set<?> values) {
+        if (values.isEmpty()) return;
+
+        out.add(key + "=" + values.stream().map(Object::toString).sorted(Comparator.naturalOrder()).collect(Collectors.joining(",")));
+    }
+}
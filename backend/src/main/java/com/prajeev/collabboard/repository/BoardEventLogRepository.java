@@ -0,0 +1,54 @@
+package com.prajeev.collabboard.repository;
+
+import com.prajeev.collabboard.domain.BoardEventLogEntry;
+import com.prajeev.collabboard.domain.BoardEventLogEntryId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BoardEventLogRepository extends JpaRepository<BoardEventLogEntry, BoardEventLogEntryId> {
+    List<BoardEventLogEntry> findByBoardIdAndRevisionGreaterThanOrderByRevisionAsc(UUID boardId, long revision, Limit limit);
+
+    List<BoardEventLogEntry> findByBoardIdAndRevisionBetweenOrderByRevisionAsc(UUID boardId, long fromRevision, long toRevision);
+
+    interface BoardActivity {
+        UUID getBoardId();
+        Instant getLastActivityAt();
+    }
+
+    // Time of each board's latest logged event; boards with none left in the log are left out.
+    @Query("""
+        select e.boardId as boardId, max(e.createdAt) as lastActivityAt
+            from BoardEventLogEntry e
+                where e.boardId in :boardIds
+                    group by e.boardId
+    """)
+    List<BoardActivity> findLastActivityByBoardIds(@Param("boardIds") Collection<UUID> boardIds);
+
+    // Plain insert: the key is assigned, so save() would first select to decide between persist and merge.
+    @Modifying
+    @Query(value = """
+        insert into board_events (board_id, revision, event_id, type, payload, created_at)
+        values (:boardId, :revision, :eventId, :type, cast(:payload as jsonb), :createdAt)
+    """, nativeQuery = true)
+    int append(UUID boardId, long revision, UUID eventId, String type, String payload, Instant createdAt);
+
+    @Modifying
+    @Query(value = """
+        delete from board_events
+         where ctid in (
+                select ctid
+                  from board_events
+                 where created_at < :cutoff
+                 limit :batchSize
+               )
+    """, nativeQuery = true)
+    int deleteOlderThan(Instant cutoff, int batchSize);
+}
@@ -4,9 +4,15 @@ import com.prajeev.collabboard.domain.Board;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BoardRepository extends JpaRepository<Board, UUID> {
 
+    @Query("select b.revision from Board b where b.id = :boardId")
+    Optional<Long> findRevisionById(UUID boardId);
+
+    // Row-locks the board until commit, so revisions are handed out in commit order.
+    @Query(value = "update boards set revision = revision + 1 where id = :boardId returning revision", nativeQuery = true)
+    long bumpRevision(UUID boardId);
 }
@@ -0,0 +1,14 @@
+package com.prajeev.collabboard.repository;
+
+import com.prajeev.collabboard.domain.BoardRole;
+import com.prajeev.collabboard.domain.Card;
+
+import java.util.UUID;
+
+/**
+ * A card together with its board, its derived position in the list and the caller's role on that board
+ * (null when the caller isn't a member), all read by one query.
+ */
+public record CardAccess(Card card, UUID boardId, long position, BoardRole role) {
+
+}
@@ -1,107 +1,276 @@
 package com.prajeev.collabboard.repository;
 
+import com.prajeev.collabboard.domain.BoardRole;
 import com.prajeev.collabboard.domain.Card;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface CardRepository extends JpaRepository<Card, UUID> {
-    List<Card> findByListIdOrderByPositionAsc(UUID listId);
+    // Stand-in for an absent move anchor; native queries can't bind a typed null uuid portably.
+    UUID NO_ANCHOR = new UUID(0L, 0L);
 
-    List<Card> findByListIdInOrderByListIdAscPositionAsc(Collection<UUID> listIds);
+    List<Card> findByListIdOrderByRankAsc(UUID listId);
 
-    long countByListId(UUID listId);
+    List<Card> findByBoardIdOrderByListIdAscRankAsc(UUID boardId);
 
-    @Query("select coalesce(max(c.position), -1) from Card c where c.listId = :listId")
-    int maxPositionBylistId(UUID listId);
+    // Derived position: number of cards ranked before the given rank in the list.
+    @Query("select count(c) from Card c where c.listId = :listId and c.rank < :rank")
+    long countRankedBefore(UUID listId, long rank);
 
-    @Modifying(flushAutomatically = true, clearAutomatically = true)
-    @Query("""
-        update Card c
-            set c.position = c.position + 1
-            where c.listId = :listId
-            and c.position >= :fromPos
-    """)
-    int bumpPositionsRight(UUID listId, int fromPos);
+    interface CardMoveRow {
+        String getStatus();
+        UUID getFromListId();
+        UUID getBeforeCardId();
+        Long getBeforeRank();
+        Long getAfterRank();
+        UUID getId();
+        UUID getListId();
+        String getTitle();
+        String getDescription();
+        long getRank();
+        long getVersion();
+        String getPriority();
+        Long getDueDateMicros();
+        long getUpdatedAtMicros();
+        UUID getCreatedByUserId();
+        UUID getAssigneeUserId();
+    }
 
-    @Modifying(flushAutomatically = true, clearAutomatically = true)
-    @Query("""
-        update Card c
-           set c.position = c.position - 1
-         where c.listId = :listId
-           and c.position > :fromPos
-           and c.position <= :toPos
-    """)
-    int shiftLeftWithinList(UUID listId, int fromPos, int toPos);
+    /**
+     * Moves a card in one statement: checks the expected version and source list, resolves the rank
+     * from the anchor cards in toListId, updates the card and the lists' card counters, and returns
+     * the card row together with the card it now follows (beforeCardId, null at the top of the list).
+     * Positions are not derived here: counting the cards ranked ahead is a range scan, and this
+     * statement runs with both lists locked. status is one of
+     * MOVED, NOOP, CONFLICT or NO_ROOM (neighbours adjacent, list needs a rebalance).
+     *  - beforeCardId set and still in toListId: the card goes directly after it.
+     *  - otherwise afterCardId set and still in toListId: the card goes directly before it.
+     *  - otherwise: the card goes to the end of toListId.
+     * Pass NO_ANCHOR for an absent anchor. Both lists must already be locked by the caller.
+     * board_id is left as is: moves stay within a board (fk_cards_list_board rejects anything else).
+     */
+    @Query(value = """
+        with card as (
+            select c.id, c.list_id, c.rank, c.version
+              from cards c
+             where c.id = :cardId
+        ),
+        origin as (
+            select k.list_id as from_list_id
+              from card k
+        ),
+        anchors as (
+            select (select x.rank from cards x
+                     where x.id = :beforeCardId and x.list_id = :toListId and x.id <> :cardId) as before_anchor,
+                   (select x.rank from cards x
+                     where x.id = :afterCardId and x.list_id = :toListId and x.id <> :cardId) as after_anchor
+        ),
+        neighbours as (
+            select case
+                       when a.before_anchor is not null then a.before_anchor
+                       when a.after_anchor is not null then
+                           (select max(x.rank) from cards x
+                             where x.list_id = :toListId and x.id <> :cardId and x.rank < a.after_anchor)
+                       else
+                           (select max(x.rank) from cards x
+                             where x.list_id = :toListId and x.id <> :cardId)
+                   end as before_rank,
+                   case
+                       when a.before_anchor is not null then
+                           (select min(x.rank) from cards x
+                             where x.list_id = :toListId and x.id <> :cardId and x.rank > a.before_anchor)
+                       else a.after_anchor
+                   end as after_rank
+              from anchors a
+        ),
+        placed as (
+            select n.before_rank,
+                   n.after_rank,
+                   case
+                       when n.after_rank is null then coalesce(n.before_rank, 0) + :step
+                       else coalesce(n.before_rank, 0) + (n.after_rank - coalesce(n.before_rank, 0)) / 2
+                   end as rank
+              from neighbours n
+        ),
+        outcome as (
+            select case
+                       when k.version <> :expectedVersion or k.list_id <> :fromListId then 'CONFLICT'
+                       when k.list_id = :toListId
+                            and k.rank > coalesce(p.before_rank, 0)
+                            and (p.after_rank is null or k.rank < p.after_rank) then 'NOOP'
+                       when p.rank <= coalesce(p.before_rank, 0)
+                            or (p.after_rank is not null and p.rank >= p.after_rank) then 'NO_ROOM'
+                       else 'MOVED'
+                   end as status
+              from card k, placed p
+        ),
+        target as (
+            select (select x.id from cards x
+                     where x.list_id = :toListId and x.id <> :cardId and x.rank = p.before_rank
+                     limit 1) as before_card_id
+              from placed p
+        ),
+        moved as (
+            update cards c
+               set list_id = :toListId,
+                   rank = p.rank,
+                   version = c.version + 1,
+                   updated_at = now()
+              from outcome s, placed p
+             where c.id = :cardId
+               and c.version = :expectedVersion
+               and s.status = 'MOVED'
+         returning c.*
+        ),
+        counters as (
+            update lists l
+               set card_count = l.card_count + case
+                                                   when o.from_list_id = :toListId then 0
+                                                   when l.id = :toListId then 1
+                                                   else -1
+                                               end,
+                   max_rank = case
+                                  when l.id = :toListId and l.max_rank < m.rank then m.rank
+                                  else l.max_rank
+                              end
+              from moved m, origin o
+             where l.id in (o.from_list_id, :toListId)
+         returning l.id
+        )
+        select case
+                   when s.status = 'MOVED' and not exists (select 1 from moved) then 'CONFLICT'
+                   else s.status
+               end as "status",
+               o.from_list_id as "fromListId",
+               t.before_card_id as "beforeCardId",
+               p.before_rank as "beforeRank",
+               p.after_rank as "afterRank",
+               r.id as "id",
+               r.list_id as "listId",
+               r.title as "title",
+               r.description as "description",
+               r.rank as "rank",
+               r.version as "version",
+               r.priority as "priority",
+               cast(floor(extract(epoch from r.due_date) * 1000000) as bigint) as "dueDateMicros",
+               cast(floor(extract(epoch from r.updated_at) * 1000000) as bigint) as "updatedAtMicros",
+               r.created_by as "createdByUserId",
+               r.assignee_user_id as "assigneeUserId"
+          from outcome s
+         cross join origin o
+         cross join target t
+         cross join placed p
+         cross join (
+                select * from moved
+                union all
+                select c.* from cards c where c.id = :cardId and not exists (select 1 from moved)
+               ) r
+    """, nativeQuery = true)
+    Optional<CardMoveRow> moveCard(UUID cardId, UUID fromListId, UUID toListId, UUID beforeCardId, UUID afterCardId, long expectedVersion, long step);
 
+    // Re-spaces every rank in the list to step, 2*step, ... keeping the current order.
     @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        update cards c
+           set rank = r.rn * :step
+          from (
+                select id, row_number() over (order by rank, id) as rn
+                  from cards
+                 where list_id = :listId
+               ) r
+         where c.id = r.id
+           and c.rank <> r.rn * :step
+    """, nativeQuery = true)
+    int rebalanceRanks(UUID listId, long step);
+
+    // Where a card lives, plus the caller's role on its board (null for non-members).
+    interface CardLocation {
+        UUID getCardId();
+        UUID getListId();
+        UUID getBoardId();
+        BoardRole getRole();
+    }
+
     @Query("""
-        update Card c
-           set c.position = c.position + 1
-         where c.listId = :listId
-           and c.position >= :toPos
-           and c.position < :fromPos
+        select c.id as cardId, c.listId as listId, c.boardId as boardId, m.role as role
+            from Card c
+                left join BoardMembership m on m.boardId = c.boardId and m.userId = :userId
+                    where c.id = :cardId
     """)
-    int shiftRightWithinList(UUID listId, int toPos, int fromPos);
+    Optional<CardLocation> findLocationByCardId(UUID cardId, UUID userId);
 
-    // When moving out of a list: close the gap for all positions > oldPos
-    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("""
-        update Card c
-           set c.position = c.position - 1
-         where c.listId = :listId
-           and c.position > :oldPos
+        select c.id as cardId, c.listId as listId, c.boardId as boardId, m.role as role
+            from Card c
+                left join BoardMembership m on m.boardId = c.boardId and m.userId = :userId
+                    where c.id in :cardIds
     """)
-    int closeGapAfterRemoval(UUID listId, int oldPos);
+    List<CardLocation> findLocationsByCardIds(Collection<UUID> cardIds, UUID userId);
 
-    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("""
-        update Card c
-           set c.listId = :toListId,
-               c.position = :toPos,
-               c.version = :newVersion,
-               c.updatedAt = :updatedAt
-         where c.id = :cardId
+        select new com.prajeev.collabboard.repository.CardAccess(
+            c,
+            c.boardId,
+            (select count(x) from Card x where x.listId = c.listId and x.rank < c.rank),
+            m.role
+            ) from Card c
+                left join BoardMembership m on m.boardId = c.boardId and m.userId = :userId
+                    where c.id = :cardId
     """)
-    int applyMove(UUID cardId, UUID toListId, int toPos, long newVersion, Instant updatedAt);
+    Optional<CardAccess> findAccessByCardId(UUID cardId, UUID userId);
 
-    @Modifying(flushAutomatically = true, clearAutomatically = true)
-    @Query("""
-    update Card c
-       set c.position = :tempPos
-     where c.id = :cardId
-""")
-    int setTempPosition(UUID cardId, int tempPos);
+    // Row lock for edits that save the whole Card: moves update list_id/rank natively, so they must wait.
+    @Query(value = "select c.id from cards c where c.id = :cardId for update", nativeQuery = true)
+    Optional<UUID> lockById(UUID cardId);
 
-    @Modifying(flushAutomatically = true, clearAutomatically = true)
-    @Query("""
-    update Card c
-       set c.position = c.position + :offset
-     where c.listId = :listId
-       and c.position >= :fromPos
-""")
-    int bumpRightPhase1(UUID listId, int fromPos, int offset);
+    // Every card of a board, locked in id order (board deletes take them before the board row).
+    @Query(value = "select c.id from cards c where c.board_id = :boardId order by c.id for update", nativeQuery = true)
+    List<UUID> lockByBoardId(UUID boardId);
 
+    // Deletes the card only if it is still in listId at expectedVersion; 0 means it changed meanwhile.
     @Modifying(flushAutomatically = true, clearAutomatically = true)
-    @Query("""
-    update Card c
-       set c.position = c.position - (:offset - 1)
-     where c.listId = :listId
-       and c.position >= (:fromPos + :offset)
-""")
-    int bumpRightPhase2(UUID listId, int fromPos, int offset);
+    @Query("delete from Card c where c.id = :cardId and c.listId = :listId and c.version = :expectedVersion")
+    int deleteIfCurrent(UUID cardId, UUID listId, long expectedVersion);
+
+    interface RankedCard {
+        UUID getId();
+        UUID getListId();
+        long getRank();
+        long getVersion();
+    }
 
     @Query("""
-        select l.boardId
-            from Card c
-                join BoardList l on l.id = c.listId
-                    where c.id = :cardId
+        select c.id as id, c.listId as listId, c.rank as rank, c.version as version
+          from Card c
+         where c.listId in :listIds
+         order by c.listId, c.rank, c.id
     """)
-    Optional<UUID> findBoardIdByCardId(UUID cardId);
+    List<RankedCard> findRankedByListIds(Collection<UUID> listIds);
+
+    /**
+     * Writes list/rank for many cards in one statement. Rows with expectedVersion >= 0 are moves:
+     * they must still be at that version and get it bumped. Rows with -1 only had their rank re-spaced.
+     * Returns the number of rows written; anything short of cardIds.length means a version conflict.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        update cards c
+           set list_id = v.list_id,
+               rank = v.rank,
+               version = c.version + case when v.expected_version >= 0 then 1 else 0 end,
+               updated_at = case when v.expected_version >= 0 then now() else c.updated_at end
+          from unnest(cast(:cardIds as uuid[]),
+                      cast(:listIds as uuid[]),
+                      cast(:ranks as bigint[]),
+                      cast(:expectedVersions as bigint[])) as v(id, list_id, rank, expected_version)
+         where c.id = v.id
+           and (v.expected_version < 0 or c.version = v.expected_version)
+    """, nativeQuery = true)
+    int applyPlacements(UUID[] cardIds, UUID[] listIds, Long[] ranks, Long[] expectedVersions);
 }
@@ -2,12 +2,15 @@ package com.prajeev.collabboard.repository;
 
 import com.prajeev.collabboard.domain.Board;
 import com.prajeev.collabboard.domain.BoardList;
+import com.prajeev.collabboard.domain.BoardRole;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,8 +18,34 @@ import java.util.UUID;
 public interface ListRepository extends JpaRepository<BoardList, UUID> {
     List<BoardList> findByBoardIdOrderByPositionAsc(UUID boardId);
 
-    @Query("select l.boardId from BoardList l where l.id = :listId")
-    Optional<UUID> findBoardIdByListId(@Param("listId") UUID listId);
+    interface ListAccess {
+        UUID getListId();
+        UUID getBoardId();
+        BoardRole getRole();
+    }
+
+    // A list's board and the caller's role on it (null for non-members) in one query.
+    @Query("""
+        select l.id as listId, l.boardId as boardId, m.role as role
+            from BoardList l
+                left join BoardMembership m on m.boardId = l.boardId and m.userId = :userId
+                    where l.id = :listId
+    """)
+    Optional<ListAccess> findAccessByListId(@Param("listId") UUID listId, @Param("userId") UUID userId);
+
+    interface BoardCardCount {
+        UUID getBoardId();
+        long getCardCount();
+    }
+
+    // From the lists' card counters; boards without lists are left out.
+    @Query("""
+        select l.boardId as boardId, sum(l.cardCount) as cardCount
+            from BoardList l
+                where l.boardId in :boardIds
+                    group by l.boardId
+    """)
+    List<BoardCardCount> countCardsByBoardIds(@Param("boardIds") Collection<UUID> boardIds);
 
     @Query("select coalesce(max(l.position), -1) from BoardList l where l.boardId = :boardId")
     int maxPositionByBoardId(UUID boardId);
@@ -24,4 +53,52 @@ public interface ListRepository extends JpaRepository<BoardList, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select l from BoardList l where l.id = :listId")
     Optional<BoardList> findByIdForUpdate(@Param("listId") UUID listId);
+
+    // Locks several lists in id order so concurrent multi-list writers cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from BoardList l where l.id in :listIds order by l.id")
+    List<BoardList> findAllByIdForUpdate(@Param("listIds") Collection<UUID> listIds);
+
+    // Every list of a board, locked in the same id order as findAllByIdForUpdate.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from BoardList l where l.boardId = :boardId order by l.id")
+    List<BoardList> findAllByBoardIdForUpdate(@Param("boardId") UUID boardId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update BoardList l
+           set l.cardCount = l.cardCount + 1,
+               l.maxRank = case when l.maxRank < :rank then :rank else l.maxRank end
+         where l.id = :listId
+    """)
+    int recordCardAdded(UUID listId, long rank);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update BoardList l
+           set l.cardCount = l.cardCount - 1
+         where l.id = :listId
+    """)
+    int recordCardRemoved(UUID listId);
+
+    // Sets card_count/max_rank for several locked lists at once (batch moves recount them in memory).
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        update lists l
+           set card_count = v.card_count,
+               max_rank = v.max_rank
+          from unnest(cast(:listIds as uuid[]),
+                      cast(:cardCounts as integer[]),
+                      cast(:maxRanks as bigint[])) as v(id, card_count, max_rank)
+         where l.id = v.id
+    """, nativeQuery = true)
+    int applyCounters(UUID[] listIds, Integer[] cardCounts, Long[] maxRanks);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        update lists
+           set max_rank = (select coalesce(max(c.rank), 0) from cards c where c.list_id = :listId)
+         where id = :listId
+    """, nativeQuery = true)
+    int resetMaxRank(UUID listId);
 }
@@ -1,10 +1,19 @@
 package com.prajeev.collabboard.security;
 
+import java.security.Principal;
 import java.util.UUID;
 
+/**
+ * The authenticated user. As a Principal it is named by the user id, which is what STOMP user
+ * destinations (/user/queue/...) resolve against.
+ */
 public record AuthPrincipal(
         UUID userId,
         String email
-) {
+) implements Principal {
 
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
 }
@@ -28,7 +28,10 @@ public class SecurityConfig {
                                 .requestMatchers("/auth/**").permitAll()
                                 // Invite preview is public; accepting an invite still requires auth.
                                 .requestMatchers(HttpMethod.GET, "/invites/**").permitAll()
-                                .requestMatchers("/ws/**").permitAll()
+                                .requestMatchers("/ws/**", "/ws-native").permitAll()
+                                // Operational endpoints (metrics, boardsubscriptions) are not for board users.
+                                .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                                .requestMatchers("/actuator/**").hasRole("ADMIN")
                                 .anyRequest().authenticated()
                         ).addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
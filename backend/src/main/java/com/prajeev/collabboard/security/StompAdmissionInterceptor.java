@@ -0,0 +1,84 @@
+package com.prajeev.collabboard.security;
+
+import com.prajeev.collabboard.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Paces reconnect storms before any work is done for them: runs ahead of StompAuthChannelInterceptor,
+ * so a rejected CONNECT never parses its JWT and a rejected SUBSCRIBE never looks up a role.
+ *  - CONNECT and SUBSCRIBE each take a token from a node-wide bucket (rate a second, up to burst).
+ *  - Without a token the frame fails with TooManyRequestsException; StompErrorHandler turns that into
+ *    an ERROR frame with a retry-after header, drawn uniformly between retry-after-min and
+ *    retry-after-max so the rejected clients don't all come back at once.
+ */
+@Component
+public class StompAdmissionInterceptor implements ChannelInterceptor {
+    private final TokenBucket connects;
+    private final TokenBucket subscribes;
+    private final long retryAfterMinMillis;
+    private final long retryAfterMaxMillis;
+    private final Counter connectsRejected;
+    private final Counter subscribesRejected;
+
+    public StompAdmissionInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${app.realtime.admission.connect.rate:200}") double connectRate,
+            @Value("${app.realtime.admission.connect.burst:400}") int connectBurst,
+            @Value("${app.realtime.admission.subscribe.rate:1000}") double subscribeRate,
+            @Value("${app.realtime.admission.subscribe.burst:2000}") int subscribeBurst,
+            @Value("${app.realtime.admission.retry-after-min:PT1S}") Duration retryAfterMin,
+            @Value("${app.realtime.admission.retry-after-max:PT10S}") Duration retryAfterMax
+    ) {
+        if (retryAfterMax.compareTo(retryAfterMin) < 0) {
+            throw new IllegalArgumentException("app.realtime.admission.retry-after-max must not be below retry-after-min");
+        }
+
+        this.connects = new TokenBucket(connectRate, connectBurst);
+        this.subscribes = new TokenBucket(subscribeRate, subscribeBurst);
+        this.retryAfterMinMillis = retryAfterMin.toMillis();
+        this.retryAfterMaxMillis = retryAfterMax.toMillis();
+
+        this.connectsRejected = Counter.builder("stomp.admission.rejected")
+                .tag("command", "connect")
+                .description("STOMP frames turned away because their admission bucket was empty")
+                .register(meterRegistry);
+        this.subscribesRejected = Counter.builder("stomp.admission.rejected")
+                .tag("command", "subscribe")
+                .description("STOMP frames turned away because their admission bucket was empty")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) return message;
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand()) && !connects.tryAcquire()) {
+            connectsRejected.increment();
+            throw new TooManyRequestsException("STOMP_CONNECT_THROTTLED", "Too many connections, retry later", retryAfter());
+        }
+
+        if (StompCommand.SUBSCRIBE.equals(accessor.getCommand()) && !subscribes.tryAcquire()) {
+            subscribesRejected.increment();
+            throw new TooManyRequestsException("STOMP_SUBSCRIBE_THROTTLED", "Too many subscriptions, retry later", retryAfter());
+        }
+
+        return message;
+    }
+
+    private Duration retryAfter() {
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(retryAfterMinMillis, retryAfterMaxMillis + 1));
+    }
+}
@@ -1,5 +1,12 @@
 package com.prajeev.collabboard.security;
 
+import com.prajeev.collabboard.controller.CardCommandController;
+import com.prajeev.collabboard.realtime.BoardDashboardService;
+import com.prajeev.collabboard.realtime.BoardEventReplayer;
+import com.prajeev.collabboard.realtime.BoardTopics;
+import com.prajeev.collabboard.realtime.EventEncoders;
+import com.prajeev.collabboard.realtime.EventEncoding;
+import com.prajeev.collabboard.realtime.SubscriptionFilter;
 import com.prajeev.collabboard.service.BoardAuthService;
 import com.prajeev.collabboard.service.JwtService;
 import io.jsonwebtoken.Claims;
@@ -17,25 +24,35 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Secures STOMP over WebSocket by:
  *  - Authenticating the CONNECT frame using a JWT in the native "Authorization" header.
  *  - Authorizing SUBSCRIBE to /topic/boards/{boardId} only for board members.
+ *  - Rejecting a malformed last-revision (resume) header on that SUBSCRIBE.
+ *  - Negotiating the session's event encoding on CONNECT, and pointing its board SUBSCRIBEs at that
+ *    encoding's topic. Clients always subscribe to the plain topic.
+ *  - Validating the optional filter header on that SUBSCRIBE and pointing it at the filter's topic.
+ *  - Authorizing SUBSCRIBE to /topic/boards/{boardId}/presence and SEND to /app/boards/{boardId}/presence
+ *    only for board members.
+ *  - Allowing SUBSCRIBE to the session's own reply queues (/user/queue/...) and SEND only to
+ *    application destinations (/app/...), never straight to the broker.
  */
 @Component
 public class StompAuthChannelInterceptor implements ChannelInterceptor {
-    private static final Pattern BOARD_TOPIC = Pattern.compile("^/topic/boards/([0-9a-fA-F-]{36})$");
+    private static final String APP_PREFIX = "/app/";
+    private static final Set<String> USER_QUEUES = Set.of("/user" + CardCommandController.REPLY_QUEUE, "/user" + BoardDashboardService.QUEUE);
 
     private final JwtService jwtService;
     private final BoardAuthService boardAuthService;
+    private final EventEncoders encoders;
 
-    public StompAuthChannelInterceptor(JwtService jwtService, BoardAuthService boardAuthService) {
+    public StompAuthChannelInterceptor(JwtService jwtService, BoardAuthService boardAuthService, EventEncoders encoders) {
         this.jwtService = jwtService;
         this.boardAuthService = boardAuthService;
+        this.encoders = encoders;
     }
 
     @Override
@@ -60,28 +77,57 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
                     List.of(new SimpleGrantedAuthority("ROLE_USER"))
             );
             accessor.setUser(auth);
+            encoders.negotiate(firstNativeHeader(accessor, EventEncoding.HEADER), accessor.getSessionAttributes());
             return message;
         }
 
-        if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
-            var user = accessor.getUser();
-            if (!(user instanceof UsernamePasswordAuthenticationToken upat)) {
-                throw new AccessDeniedException("Unauthenticated STOMP session");
+        if (StompCommand.SEND.equals(accessor.getCommand())) {
+            AuthPrincipal p = requirePrincipal(accessor);
+
+            String dest = accessor.getDestination();
+            if (dest == null || !dest.startsWith(APP_PREFIX)) {
+                throw new AccessDeniedException("Send destination not allowed: " + dest);
             }
-            if (!(upat.getPrincipal() instanceof AuthPrincipal p)) {
-                throw new AccessDeniedException("Invalid principal");
+
+            UUID presenceBoardId = BoardTopics.presenceUpdateBoardIdOf(dest);
+            if (presenceBoardId != null) {
+                boardAuthService.requireMember(presenceBoardId, p.userId());
             }
+            return message;
+        }
+
+        if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            AuthPrincipal p = requirePrincipal(accessor);
 
             String dest = accessor.getDestination();
             if (dest == null) {
                 throw new AccessDeniedException("Missing destination");
             }
 
-            Matcher m = BOARD_TOPIC.matcher(dest);
-            if (m.matches()) {
-                UUID boardId = UUID.fromString(m.group(1));
+            UUID boardId = BoardTopics.boardIdOf(dest);
+            if (boardId != null && dest.equals(BoardTopics.of(boardId))) {
                 // Throws ForbiddenException if not a member
                 boardAuthService.requireMember(boardId, p.userId());
+                requireValidLastRevision(accessor);
+
+                // Throws IllegalArgumentException for a malformed filter
+                SubscriptionFilter filter = SubscriptionFilter.parse(firstNativeHeader(accessor, SubscriptionFilter.HEADER), p.userId());
+                EventEncoding encoding = EventEncoding.ofSession(accessor.getSessionAttributes());
+                String topic = BoardTopics.of(boardId, encoding, filter);
+                if (!topic.equals(dest)) {
+                    accessor.setDestination(topic);
+                }
+                return message;
+            }
+
+            UUID presenceBoardId = BoardTopics.presenceBoardIdOf(dest);
+            if (presenceBoardId != null) {
+                boardAuthService.requireMember(presenceBoardId, p.userId());
+                return message;
+            }
+
+            // Resolved to this session's own queue by the user destination handler.
+            if (USER_QUEUES.contains(dest)) {
                 return message;
             }
 
@@ -92,6 +138,29 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
         return message;
     }
 
+    private AuthPrincipal requirePrincipal(StompHeaderAccessor accessor) {
+        var user = accessor.getUser();
+        if (!(user instanceof UsernamePasswordAuthenticationToken upat)) {
+            throw new AccessDeniedException("Unauthenticated STOMP session");
+        }
+        if (!(upat.getPrincipal() instanceof AuthPrincipal p)) {
+            throw new AccessDeniedException("Invalid principal");
+        }
+        return p;
+    }
+
+    private void requireValidLastRevision(StompHeaderAccessor accessor) {
+        String lastRevision = firstNativeHeader(accessor, BoardEventReplayer.LAST_REVISION_HEADER);
+        if (lastRevision == null) return;
+
+        try {
+            if (Long.parseLong(lastRevision) >= 0) return;
+        } catch (NumberFormatException ignored) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid " + BoardEventReplayer.LAST_REVISION_HEADER + " header: " + lastRevision);
+    }
+
     private @Nullable String extractBearerToken(StompHeaderAccessor accessor) {
         // STOMP native headers are case-sensitive by convention, but clients vary.
         String auth = firstNativeHeader(accessor, HttpHeaders.AUTHORIZATION);
@@ -0,0 +1,34 @@
+package com.prajeev.collabboard.security;
+
+import com.prajeev.collabboard.exception.TooManyRequestsException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.StompSubProtocolErrorHandler;
+
+/**
+ * The default ERROR frames, except for frames turned away by StompAdmissionInterceptor: those say when
+ * to come back, in milliseconds, in a retry-after header.
+ */
+@Component
+public class StompErrorHandler extends StompSubProtocolErrorHandler {
+    public static final String RETRY_AFTER_HEADER = "retry-after";
+
+    @Override
+    protected Message<byte[]> handleInternal(StompHeaderAccessor errorHeaderAccessor, byte[] errorPayload, Throwable cause, StompHeaderAccessor clientHeaderAccessor) {
+        TooManyRequestsException tooMany = tooManyRequestsIn(cause);
+        if (tooMany != null) {
+            errorHeaderAccessor.setMessage(tooMany.getMessage());
+            errorHeaderAccessor.setNativeHeader(RETRY_AFTER_HEADER, Long.toString(tooMany.getRetryAfter().toMillis()));
+        }
+        return super.handleInternal(errorHeaderAccessor, errorPayload, cause, clientHeaderAccessor);
+    }
+
+    // Channel interceptor exceptions arrive wrapped in a MessageDeliveryException.
+    private static TooManyRequestsException tooManyRequestsIn(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof TooManyRequestsException e) return e;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.prajeev.collabboard.security;
+
+/**
+ * Refills at rate tokens a second up to burst; each admitted request takes one.
+ */
+final class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    TokenBucket(double rate, int burst) {
+        if (rate <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Token bucket rate and burst must be positive: " + rate + ", " + burst);
+        }
+
+        this.tokensPerNano = rate / 1e9;
+        this.capacity = burst;
+        this.tokens = burst;
+    }
+
+    synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+
+        if (tokens < 1) return false;
+
+        tokens -= 1;
+        return true;
+    }
+}
@@ -1,24 +1,45 @@
 package com.prajeev.collabboard.service;
 
-import com.prajeev.collabboard.domain.BoardMembership;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.prajeev.collabboard.domain.BoardRole;
 import com.prajeev.collabboard.exception.ForbiddenException;
 import com.prajeev.collabboard.repository.BoardMembershipRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.UUID;
 
 @Service
 public class BoardAuthService {
     private final BoardMembershipRepository repo;
 
-    public BoardAuthService(BoardMembershipRepository repo) {
+    // (boardId, userId) -> role. Only memberships are cached; a miss always goes to the database.
+    private final Cache<RoleKey, BoardRole> roles;
+
+    public BoardAuthService(
+            BoardMembershipRepository repo,
+            MeterRegistry meterRegistry,
+            @Value("${app.authz.role-cache.max-size:100000}") long maxSize,
+            @Value("${app.authz.role-cache.ttl:PT5M}") Duration ttl
+    ) {
         this.repo = repo;
+        this.roles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, roles, "boardRoles");
     }
 
     public BoardRole getUserRole(UUID boardId, UUID userId) {
-        return repo.findRole(boardId, userId)
-                .orElseThrow(() -> new ForbiddenException("NOT_A_MEMBER", "You're not a member of this board"));
+        return requireMember(roles.get(new RoleKey(boardId, userId), k -> repo.findRole(boardId, userId).orElse(null)));
     }
 
     public BoardRole requireMember(UUID boardId, UUID userId) {
@@ -26,8 +47,22 @@ public class BoardAuthService {
     }
 
     public void requireWrite(UUID boardId, UUID userId) {
-        BoardRole role = requireMember(boardId, userId);
-        if (role == BoardRole.VIEWER) {
+        requireWrite(requireMember(boardId, userId));
+    }
+
+    /**
+     * Role checks for callers that already read the role alongside the card/list (null = not a member).
+     */
+    public BoardRole requireMember(BoardRole role) {
+        if (role == null) {
+            throw new ForbiddenException("NOT_A_MEMBER", "You're not a member of this board");
+        }
+
+        return role;
+    }
+
+    public void requireWrite(BoardRole role) {
+        if (requireMember(role) == BoardRole.VIEWER) {
             throw new ForbiddenException("INSUFFICIENT_ROLE", "You do not have permission to modify this board");
         }
     }
@@ -38,4 +73,35 @@ public class BoardAuthService {
             throw new ForbiddenException("OWNER_REQUIRED", "Only board owners can perform this action");
         }
     }
+
+    /**
+     * Drops the cached role of one member. Called by every membership write; the entry is dropped
+     * right away and again after commit, so a lookup that read the old row mid-transaction can't stick.
+     */
+    public void evict(UUID boardId, UUID userId) {
+        RoleKey key = new RoleKey(boardId, userId);
+        roles.invalidate(key);
+        afterCommit(() -> roles.invalidate(key));
+    }
+
+    public void evictBoard(UUID boardId) {
+        Runnable evict = () -> roles.asMap().keySet().removeIf(k -> k.boardId().equals(boardId));
+        evict.run();
+        afterCommit(evict);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record RoleKey(UUID boardId, UUID userId) {
+
+    }
 }
@@ -1,12 +1,22 @@
 package com.prajeev.collabboard.service;
 
 import com.prajeev.collabboard.exception.NotFoundException;
+import com.prajeev.collabboard.repository.CardAccess;
 import com.prajeev.collabboard.repository.CardRepository;
 import com.prajeev.collabboard.repository.ListRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Authorization for card/list operations. Each lookup reads the target, its board and the caller's
+ * role in one joined query, and hands the result back so callers don't have to load it again.
+ */
 @Service
 public class BoardAuthzLookupService {
     private final ListRepository listRepository;
@@ -20,30 +30,103 @@ public class BoardAuthzLookupService {
     }
 
     public UUID requireReadByListId(UUID listId, UUID userId) {
-        UUID boardId = listRepository.findBoardIdByListId(listId)
-                .orElseThrow(() -> new NotFoundException("LIST_NOT_FOUND", "List with id: " + listId + " not found"));
-        boardAuthService.requireMember(boardId, userId);
-        return boardId;
+        ListRepository.ListAccess access = findListAccess(listId, userId);
+        boardAuthService.requireMember(access.getRole());
+        return access.getBoardId();
     }
 
     public UUID requireReadByCardId(UUID cardId, UUID userId) {
-        UUID boardId = cardRepository.findBoardIdByCardId(cardId)
-                .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card with id: " + cardId + " not found"));
-        boardAuthService.requireMember(boardId, userId);
-        return boardId;
+        CardRepository.CardLocation location = findCardLocation(cardId, userId);
+        boardAuthService.requireMember(location.getRole());
+        return location.getBoardId();
     }
 
     public UUID requireWriteByListId(UUID listId, UUID userId) {
-        UUID boardId = listRepository.findBoardIdByListId(listId)
-                .orElseThrow(() -> new NotFoundException("LIST_NOT_FOUND", "List with id: " + listId + " not found"));
-        boardAuthService.requireWrite(boardId, userId);
-        return boardId;
+        ListRepository.ListAccess access = findListAccess(listId, userId);
+        boardAuthService.requireWrite(access.getRole());
+        return access.getBoardId();
     }
 
     public UUID requireWriteByCardId(UUID cardId, UUID userId) {
-        UUID boardId = cardRepository.findBoardIdByCardId(cardId)
+        return requireWriteLocationByCardId(cardId, userId).getBoardId();
+    }
+
+    public CardRepository.CardLocation requireWriteLocationByCardId(UUID cardId, UUID userId) {
+        CardRepository.CardLocation location = findCardLocation(cardId, userId);
+        boardAuthService.requireWrite(location.getRole());
+        return location;
+    }
+
+    /**
+     * Loads the card itself (with board and position) and requires read access to its board.
+     */
+    public CardAccess requireReadCard(UUID cardId, UUID userId) {
+        CardAccess access = findCardAccess(cardId, userId);
+        boardAuthService.requireMember(access.role());
+        return access;
+    }
+
+    /**
+     * Loads the card itself (with board and position) and requires write access to its board.
+     */
+    public CardAccess requireWriteCard(UUID cardId, UUID userId) {
+        CardAccess access = findCardAccess(cardId, userId);
+        boardAuthService.requireWrite(access.role());
+        return access;
+    }
+
+    /**
+     * Like requireWriteCard, but locks the card row first, so the card is read as committed and no move
+     * can change its list or rank before the caller's transaction ends. For edits that save the Card.
+     * Lock order: card before board (the revision bump), as in moves, which lock their lists before both.
+     */
+    public CardAccess requireWriteCardForUpdate(UUID cardId, UUID userId) {
+        cardRepository.lockById(cardId)
+                .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card with id: " + cardId + " not found"));
+        return requireWriteCard(cardId, userId);
+    }
+
+    /**
+     * Resolves where every card lives and requires write access to their (single) board.
+     */
+    public Map<UUID, CardRepository.CardLocation> requireWriteLocationsByCardIds(Collection<UUID> cardIds, UUID userId) {
+        Map<UUID, CardRepository.CardLocation> locations = new HashMap<>();
+        for (CardRepository.CardLocation location : cardRepository.findLocationsByCardIds(cardIds, userId)) {
+            locations.put(location.getCardId(), location);
+        }
+
+        for (UUID cardId : cardIds) {
+            if (!locations.containsKey(cardId)) {
+                throw new NotFoundException("CARD_NOT_FOUND", "Card with id: " + cardId + " not found");
+            }
+        }
+
+        Set<UUID> boardIds = new HashSet<>();
+        for (CardRepository.CardLocation location : locations.values()) {
+            boardIds.add(location.getBoardId());
+        }
+
+        if (boardIds.size() != 1) {
+            throw new IllegalArgumentException("Cannot move cards across boards!");
+        }
+
+        // One board, one caller: every row carries the same role.
+        boardAuthService.requireWrite(locations.values().iterator().next().getRole());
+        return locations;
+    }
+
+    private ListRepository.ListAccess findListAccess(UUID listId, UUID userId) {
+        return listRepository.findAccessByListId(listId, userId)
+                .orElseThrow(() -> new NotFoundException("LIST_NOT_FOUND", "List with id: " + listId + " not found"));
+    }
+
+    private CardRepository.CardLocation findCardLocation(UUID cardId, UUID userId) {
+        return cardRepository.findLocationByCardId(cardId, userId)
+                .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card with id: " + cardId + " not found"));
+    }
+
+    private CardAccess findCardAccess(UUID cardId, UUID userId) {
+        return cardRepository.findAccessByCardId(cardId, userId)
                 .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card with id: " + cardId + " not found"));
-        boardAuthService.requireWrite(boardId, userId);
-        return boardId;
     }
 }
@@ -0,0 +1,88 @@
+package com.prajeev.collabboard.service;
+
+import com.prajeev.collabboard.domain.BoardEventLogEntry;
+import com.prajeev.collabboard.repository.BoardEventLogRepository;
+import com.prajeev.collabboard.repository.BoardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads and prunes the board event log (board_events). Revisions are dense per board, so the
+ * events after a revision can be replayed exactly when the log still holds every one of them.
+ */
+@Service
+public class BoardEventLogService {
+    private static final Logger log = LoggerFactory.getLogger(BoardEventLogService.class);
+    private static final int PRUNE_BATCH_SIZE = 5000;
+
+    private final BoardEventLogRepository eventLogRepository;
+    private final BoardRepository boardRepository;
+    private final TransactionTemplate tx;
+    private final int maxReplayEvents;
+    private final Duration retention;
+
+    public BoardEventLogService(
+            BoardEventLogRepository eventLogRepository,
+            BoardRepository boardRepository,
+            TransactionTemplate tx,
+            @Value("${app.boards.changes.max-events:500}") int maxReplayEvents,
+            @Value("${app.boards.events.retention:PT24H}") Duration retention
+    ) {
+        this.eventLogRepository = eventLogRepository;
+        this.boardRepository = boardRepository;
+        this.tx = tx;
+        this.maxReplayEvents = maxReplayEvents;
+        this.retention = retention;
+    }
+
+    /**
+     * The events after revision since, in order; empty list when since is current. Empty optional when they
+     * can't be replayed: pruned or never logged, since isn't a revision of the board, or more than the replay cap.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Optional<List<BoardEventLogEntry>> eventsSince(UUID boardId, long since) {
+        long current = boardRepository.findRevisionById(boardId).orElse(-1L);
+
+        if (since == current) return Optional.of(List.of());
+        if (since < 0 || since > current || current - since > maxReplayEvents) return Optional.empty();
+
+        var entries = eventLogRepository.findByBoardIdAndRevisionGreaterThanOrderByRevisionAsc(
+                boardId, since, Limit.of(maxReplayEvents)
+        );
+
+        // A complete range starts right after since and ends at current.
+        if (entries.isEmpty() || entries.getFirst().getRevision() != since + 1 || entries.size() != current - since) {
+            return Optional.empty();
+        }
+
+        return Optional.of(entries);
+    }
+
+    // Drops events older than the retention window, a batch per transaction to keep locks short.
+    @Scheduled(fixedDelayString = "${app.boards.events.prune-interval:PT10M}")
+    public void pruneExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+
+        try {
+            int deleted;
+            do {
+                deleted = tx.execute(status -> eventLogRepository.deleteOlderThan(cutoff, PRUNE_BATCH_SIZE));
+            } while (deleted == PRUNE_BATCH_SIZE);
+        } catch (Exception e) {
+            log.warn("Failed to prune board events older than {}: {}", cutoff, e.toString());
+        }
+    }
+}
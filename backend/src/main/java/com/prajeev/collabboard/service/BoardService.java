@@ -2,16 +2,20 @@ package com.prajeev.collabboard.service;
 
 import com.prajeev.collabboard.domain.*;
 import com.prajeev.collabboard.dto.*;
+import com.prajeev.collabboard.realtime.BoardEventPublisher;
 import com.prajeev.collabboard.repository.BoardMembershipRepository;
 import com.prajeev.collabboard.repository.BoardRepository;
 import com.prajeev.collabboard.repository.CardRepository;
 import com.prajeev.collabboard.repository.ListRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,13 +28,21 @@ public class BoardService {
     private final CardRepository cardRepository;
     private final BoardMembershipRepository boardMembershipRepository;
     private final BoardAuthService boardAuthService;
+    private final BoardSnapshotCache snapshotCache;
+    private final BoardEventLogService eventLog;
+    private final JsonMapper jsonMapper;
+    private final BoardEventPublisher publisher;
 
-    public BoardService(BoardRepository boardRepository, ListRepository listRepository, CardRepository cardRepository, BoardMembershipRepository boardMembershipRepository, BoardAuthService boardAuthService) {
+    public BoardService(BoardRepository boardRepository, ListRepository listRepository, CardRepository cardRepository, BoardMembershipRepository boardMembershipRepository, BoardAuthService boardAuthService, BoardSnapshotCache snapshotCache, BoardEventLogService eventLog, JsonMapper jsonMapper, BoardEventPublisher publisher) {
         this.boardRepository = boardRepository;
         this.listRepository = listRepository;
         this.cardRepository = cardRepository;
         this.boardMembershipRepository = boardMembershipRepository;
         this.boardAuthService = boardAuthService;
+        this.snapshotCache = snapshotCache;
+        this.eventLog = eventLog;
+        this.jsonMapper = jsonMapper;
+        this.publisher = publisher;
     }
 
     @Transactional
@@ -39,6 +51,7 @@ public class BoardService {
         Board saved = boardRepository.save(board);
 
         boardMembershipRepository.save(new BoardMembership(saved.getId(), userId, BoardRole.OWNER));
+        publisher.membershipChanged(saved.getId(), userId, true);
 
         return saved;
     }
@@ -94,6 +107,9 @@ public class BoardService {
 
         m.setRole(newRole);
         boardMembershipRepository.save(m);
+        boardAuthService.evict(boardId, memberId);
+        // Still a member; other nodes only need to drop the cached role.
+        publisher.membershipChanged(boardId, memberId, true);
     }
 
     @Transactional
@@ -112,12 +128,51 @@ public class BoardService {
         }
 
         boardMembershipRepository.delete(m);
+        boardAuthService.evict(boardId, memberId);
+        publisher.membershipChanged(boardId, memberId, false);
     }
 
     @Transactional(readOnly = true)
-    public BoardSnapshotResponse getSnapshot(UUID id, UUID userId) {
+    public long getRevision(UUID boardId, UUID userId) {
+        boardAuthService.requireMember(boardId, userId);
+        return boardRepository.findRevisionById(boardId).orElseThrow(
+                () -> new NotFoundException("BOARD_NOT_FOUND", "Board with ID: " + boardId + " not found.")
+        );
+    }
+
+    // Repeatable read: the revision and the rows below come from the same database snapshot.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BoardSnapshotCache.Entry getSnapshot(UUID id, UUID userId) {
         boardAuthService.requireMember(id, userId);
-        Board board = getBoardOrThrow(id);
+        return snapshotOf(getBoardOrThrow(id));
+    }
+
+    /**
+     * The events a client at revision since has missed, or a full snapshot when the event log
+     * can't replay them (see BoardEventLogService.eventsSince).
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BoardChangesResponse getChangesSince(UUID boardId, UUID userId, long since) {
+        boardAuthService.requireMember(boardId, userId);
+        Board board = getBoardOrThrow(boardId);
+
+        var missed = eventLog.eventsSince(boardId, since);
+        if (missed.isPresent()) {
+            List<JsonNode> events = missed.get().stream()
+                    .map(e -> jsonMapper.readTree(e.getPayload()))
+                    .toList();
+            return new BoardChangesResponse(board.getRevision(), events, null);
+        }
+
+        BoardSnapshotCache.Entry snapshot = snapshotOf(board);
+        return new BoardChangesResponse(snapshot.revision(), List.of(), snapshot.snapshot());
+    }
+
+    private BoardSnapshotCache.Entry snapshotOf(Board board) {
+        UUID id = board.getId();
+
+        BoardSnapshotCache.Entry cached = snapshotCache.get(id, board.getRevision());
+        if (cached != null) return cached;
 
         List<BoardList> listEntities = listRepository.findByBoardIdOrderByPositionAsc(id);
 
@@ -125,38 +180,30 @@ public class BoardService {
                 .map(l -> new ListResponse(l.getId(), l.getBoardId(), l.getName(), l.getPosition(), l.getWipLimit()))
                 .toList();
 
-        List<UUID> listIds = listEntities.stream()
-                .map(BoardList::getId)
-                .toList();
-
-        var cardsByListId = listIds.isEmpty()
-                ? Map.<UUID, List<CardResponse>>of()
-                : cardRepository.findByListIdInOrderByListIdAscPositionAsc(listIds)
-                .stream()
-                .collect(Collectors.groupingBy(
-                        Card::getListId,
-                        Collectors.mapping(
-                                c -> new CardResponse(
-                                        c.getId(),
-                                        c.getListId(),
-                                        c.getTitle(),
-                                        c.getDescription(),
-                                        c.getPosition(),
-                                        c.getVersion(),
-                                        c.getPriority(),
-                                        c.getDueDate(),
-                                        c.getUpdatedAt(),
-                                        c.getCreatedByUserId(),
-                                        c.getAssigneeUserId()
-                                ),
-                                Collectors.toList()
-                        )
-                ));
-
         var normalized = new HashMap<UUID, List<CardResponse>>();
 
-        for (UUID listId : listIds) {
-            normalized.put(listId, cardsByListId.getOrDefault(listId, List.of()));
+        for (BoardList l : listEntities) {
+            normalized.put(l.getId(), new ArrayList<>());
+        }
+
+        // Cards come back grouped by list and ordered by rank within each; the position is the index in that order.
+        for (Card c : cardRepository.findByBoardIdOrderByListIdAscRankAsc(id)) {
+            List<CardResponse> listCards = normalized.get(c.getListId());
+            if (listCards == null) continue; // list created after the lists were read
+
+            listCards.add(new CardResponse(
+                    c.getId(),
+                    c.getListId(),
+                    c.getTitle(),
+                    c.getDescription(),
+                    listCards.size(),
+                    c.getVersion(),
+                    c.getPriority(),
+                    c.getDueDate(),
+                    c.getUpdatedAt(),
+                    c.getCreatedByUserId(),
+                    c.getAssigneeUserId()
+            ));
         }
 
         String ownerName = boardMembershipRepository.listMembers(id).stream()
@@ -165,11 +212,15 @@ public class BoardService {
                 .map(m -> (m.displayName() != null && !m.displayName().isBlank()) ? m.displayName() : m.email())
                 .orElse("Unknown");
 
-        return new BoardSnapshotResponse(
+        var entry = new BoardSnapshotCache.Entry(board.getRevision(), new BoardSnapshotResponse(
                 new BoardResponse(board.getId(), board.getName(), ownerName),
                 lists,
-                normalized
-        );
+                normalized,
+                board.getRevision()
+        ));
+
+        snapshotCache.put(id, entry);
+        return entry;
     }
 
     @Transactional(readOnly = true)
@@ -181,6 +232,15 @@ public class BoardService {
     @Transactional
     public void deleteBoard(UUID boardId, UUID userId) {
         boardAuthService.requireOwner(boardId, userId);
+
+        // Lock order for board writes: lists (in id order), then cards, then the board row. Card and list
+        // writes lock their lists and bump the board revision last; the cascade below would otherwise take
+        // the board first and the lists and cards after it, deadlocking against them.
+        listRepository.findAllByBoardIdForUpdate(boardId);
+        cardRepository.lockByBoardId(boardId);
         boardRepository.deleteById(boardId);
+        boardAuthService.evictBoard(boardId);
+        snapshotCache.evict(boardId);
+        publisher.boardDeleted(boardId);
     }
 }
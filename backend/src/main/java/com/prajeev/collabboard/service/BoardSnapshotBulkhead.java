@@ -0,0 +1,116 @@
+package com.prajeev.collabboard.service;
+
+import com.prajeev.collabboard.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Keeps snapshot reads from taking the whole connection pool when every client of a board asks for it
+ * at once (typically right after a deploy, when they all reconnect).
+ *  - Requests for a board whose snapshot is already being read wait for that read instead of starting
+ *    their own, so a board costs one read however many of its clients ask.
+ *  - At most max-concurrent reads run at a time; a request that can't start one within max-wait gets
+ *    429 with a Retry-After.
+ * Callers check access themselves first: a shared read answers everyone waiting on it.
+ */
+@Component
+public class BoardSnapshotBulkhead {
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+    private final Counter joined;
+    private final Counter rejected;
+
+    private final Map<UUID, CompletableFuture<BoardSnapshotCache.Entry>> inFlight = new ConcurrentHashMap<>();
+
+    public BoardSnapshotBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${app.realtime.snapshot.max-concurrent:4}") int maxConcurrent,
+            @Value("${app.realtime.snapshot.max-wait:PT2S}") Duration maxWait,
+            @Value("${app.realtime.snapshot.retry-after:PT2S}") Duration retryAfter
+    ) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("app.realtime.snapshot.max-concurrent must be positive: " + maxConcurrent);
+        }
+
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfter = retryAfter;
+
+        this.joined = Counter.builder("board.snapshot.bulkhead.joined")
+                .description("Snapshot requests answered by a read already in flight for the same board")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("board.snapshot.bulkhead.rejected")
+                .description("Snapshot requests turned away because no read could start in time")
+                .register(meterRegistry);
+        Gauge.builder("board.snapshot.bulkhead.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Snapshot reads running now")
+                .register(meterRegistry);
+    }
+
+    public BoardSnapshotCache.Entry read(UUID boardId, Supplier<BoardSnapshotCache.Entry> read) {
+        CompletableFuture<BoardSnapshotCache.Entry> mine = new CompletableFuture<>();
+        CompletableFuture<BoardSnapshotCache.Entry> running = inFlight.putIfAbsent(boardId, mine);
+        if (running != null) {
+            joined.increment();
+            return await(running);
+        }
+
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw tooMany();
+            }
+
+            try {
+                BoardSnapshotCache.Entry entry = read.get();
+                mine.complete(entry);
+                return entry;
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            TooManyRequestsException busy = tooMany();
+            mine.completeExceptionally(busy);
+            throw busy;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(boardId, mine);
+        }
+    }
+
+    private BoardSnapshotCache.Entry await(CompletableFuture<BoardSnapshotCache.Entry> running) {
+        try {
+            return running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw tooMany();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw tooMany();
+        }
+    }
+
+    private TooManyRequestsException tooMany() {
+        rejected.increment();
+        return new TooManyRequestsException("SNAPSHOT_BUSY", "Too many board snapshot requests, retry later", retryAfter);
+    }
+}
@@ -0,0 +1,60 @@
+package com.prajeev.collabboard.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prajeev.collabboard.dto.BoardSnapshotResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Last built snapshot per board, tagged with the board revision it was read at.
+ * An entry is only served while the board is still at that revision.
+ */
+@Component
+public class BoardSnapshotCache {
+    private final Cache<UUID, Entry> snapshots;
+
+    public BoardSnapshotCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.boards.snapshot-cache.max-size:1000}") long maxSize,
+            @Value("${app.boards.snapshot-cache.ttl:PT10M}") Duration ttl
+    ) {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "boardSnapshots");
+    }
+
+    public Entry get(UUID boardId, long revision) {
+        Entry entry = snapshots.getIfPresent(boardId);
+        return (entry != null && entry.revision() == revision) ? entry : null;
+    }
+
+    public void put(UUID boardId, Entry entry) {
+        // Never replace a newer snapshot with one read at an older revision.
+        snapshots.asMap().merge(boardId, entry, (old, neu) -> neu.revision() >= old.revision() ? neu : old);
+    }
+
+    public void evict(UUID boardId) {
+        snapshots.invalidate(boardId);
+    }
+
+    public record Entry(long revision, BoardSnapshotResponse snapshot) {
+
+        public String etag() {
+            return etag(revision);
+        }
+
+        public static String etag(long revision) {
+            return "\"" + revision + "\"";
+        }
+    }
+}
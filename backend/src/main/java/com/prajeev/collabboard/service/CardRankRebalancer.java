@@ -0,0 +1,68 @@
+package com.prajeev.collabboard.service;
+
+import com.prajeev.collabboard.repository.CardRepository;
+import com.prajeev.collabboard.repository.ListRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-spaces card ranks for lists whose ranks got too dense after repeated inserts at the same spot.
+ * Card writes only flag the list; the rewrite happens here, off the request path, one list per transaction.
+ */
+@Component
+public class CardRankRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(CardRankRebalancer.class);
+
+    private final CardRepository cardRepository;
+    private final ListRepository listRepository;
+    private final TransactionTemplate tx;
+
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+
+    public CardRankRebalancer(CardRepository cardRepository, ListRepository listRepository, TransactionTemplate tx) {
+        this.cardRepository = cardRepository;
+        this.listRepository = listRepository;
+        this.tx = tx;
+    }
+
+    public void request(UUID listId) {
+        pending.add(listId);
+    }
+
+    /**
+     * Rewrites the ranks of one list. Callers must already hold the list row lock.
+     */
+    public void rebalanceLocked(UUID listId) {
+        cardRepository.rebalanceRanks(listId, CardRanks.STEP);
+        listRepository.resetMaxRank(listId);
+        pending.remove(listId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cards.rank-rebalance-interval:PT5S}")
+    public void rebalancePending() {
+        for (UUID listId : List.copyOf(pending)) {
+            pending.remove(listId);
+
+            try {
+                tx.executeWithoutResult(status -> {
+                    // Lock the list like card writes do; a list deleted in the meantime is skipped.
+                    if (listRepository.findByIdForUpdate(listId).isPresent()) {
+                        cardRepository.rebalanceRanks(listId, CardRanks.STEP);
+                        listRepository.resetMaxRank(listId);
+                    }
+                });
+            } catch (Exception e) {
+                log.warn("Failed to rebalance card ranks for listId {}: {}", listId, e.toString());
+                pending.add(listId);
+            }
+        }
+    }
+}
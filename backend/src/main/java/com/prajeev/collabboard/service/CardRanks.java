@@ -0,0 +1,44 @@
+package com.prajeev.collabboard.service;
+
+import java.util.OptionalLong;
+
+/**
+ * Sparse rank keys for ordering cards inside a list.
+ *  - Ranks are spaced STEP apart when appended or rebalanced.
+ *  - An insert between two cards takes the midpoint of their ranks, so only the moved card is written.
+ *  - When the gap around a new rank drops below MIN_GAP the list should be rebalanced.
+ */
+final class CardRanks {
+    static final long STEP = 1L << 16;
+    static final long MIN_GAP = 16;
+
+    private CardRanks() {
+
+    }
+
+    static long after(long lastRank) {
+        return lastRank + STEP;
+    }
+
+    /**
+     * Rank strictly between {@code before} and {@code after} (either may be null for the list ends),
+     * or empty if the two neighbours are adjacent and the list has to be rebalanced first.
+     */
+    static OptionalLong between(Long before, Long after) {
+        if (after == null) {
+            return OptionalLong.of(before == null ? STEP : after(before));
+        }
+
+        long lower = (before == null) ? 0 : before;
+        long mid = lower + (after - lower) / 2;
+
+        if (mid <= lower || mid >= after) return OptionalLong.empty();
+        return OptionalLong.of(mid);
+    }
+
+    static boolean isDense(Long before, long rank, Long after) {
+        long lower = (before == null) ? 0 : before;
+        if (rank - lower < MIN_GAP) return true;
+        return after != null && after - rank < MIN_GAP;
+    }
+}
@@ -1,19 +1,34 @@
 package com.prajeev.collabboard.service;
 
+import com.prajeev.collabboard.domain.BoardList;
 import com.prajeev.collabboard.domain.Card;
 import com.prajeev.collabboard.domain.CardPriority;
+import com.prajeev.collabboard.dto.BatchMoveItem;
 import com.prajeev.collabboard.dto.CardResponse;
 import com.prajeev.collabboard.exception.ConflictException;
 import com.prajeev.collabboard.exception.NotFoundException;
 import com.prajeev.collabboard.exception.WipLimitExceededException;
 import com.prajeev.collabboard.realtime.*;
+import com.prajeev.collabboard.repository.CardAccess;
 import com.prajeev.collabboard.repository.CardRepository;
 import com.prajeev.collabboard.repository.ListRepository;
 import com.prajeev.collabboard.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -23,16 +38,17 @@ public class CardService {
     private final BoardEventPublisher publisher;
     private final BoardAuthzLookupService authzLookup;
     private final UserRepository userRepository;
+    private final CardRankRebalancer rankRebalancer;
+    private final TransactionTemplate tx;
 
-    private static final int TEMP_POS = 1_000_000_000;          // use 1_000_000_000 if you have CHECK(position >= 0)
-    private static final int SHIFT_OFFSET = 1_000_000; // must be > max cards per list (practically true)
-
-    public CardService(ListRepository listRepository, CardRepository cardRepository, BoardEventPublisher publisher, BoardAuthzLookupService authzLookup, UserRepository userRepository) {
+    public CardService(ListRepository listRepository, CardRepository cardRepository, BoardEventPublisher publisher, BoardAuthzLookupService authzLookup, UserRepository userRepository, CardRankRebalancer rankRebalancer, TransactionTemplate tx) {
         this.listRepository = listRepository;
         this.cardRepository = cardRepository;
         this.userRepository = userRepository;
         this.publisher = publisher;
         this.authzLookup = authzLookup;
+        this.rankRebalancer = rankRebalancer;
+        this.tx = tx;
     }
 
     @Transactional
@@ -45,10 +61,10 @@ public class CardService {
         );
 
         // ✅ enforce WIP
+        int current = list.getCardCount();
         Integer wip = list.getWipLimit(); // wipLimit should be Integer (nullable)
-        if (wip != null) {
-            long current = cardRepository.countByListId(listId);
-            if (current >= wip) throw new WipLimitExceededException(wip);
+        if (wip != null && current >= wip) {
+            throw new WipLimitExceededException(wip);
         }
 
         UUID assignee = null;
@@ -60,15 +76,16 @@ public class CardService {
             assignee = assigneeUserId;
         }
 
-        int nextPos = cardRepository.maxPositionBylistId(listId) + 1;
+        long rank = CardRanks.after(list.getMaxRank());
         String desc = (description == null) ? "" : description.trim();
 
         Card saved = cardRepository.save(new Card(
                 UUID.randomUUID(),
                 listId,
+                list.getBoardId(),
                 title.trim(),
                 desc,
-                nextPos,
+                rank,
                 1L,
                 Instant.now(),
                 priority,
@@ -77,28 +94,39 @@ public class CardService {
                 assignee
         ));
 
-        CardResponse res = toResponse(saved);
+        listRepository.recordCardAdded(listId, rank);
+
+        CardResponse res = toResponse(saved, current);
 
-        publisher.enqueue(BoardEvent.of(list.getBoardId(), BoardEventType.CARD_CREATED, new CardCreatedData(res)));
+        publisher.enqueue(BoardEvent.of(list.getBoardId(), BoardEventType.CARD_CREATED, new CardCreatedData(res)), List.of(CardFacets.of(res)));
 
         return res;
     }
 
 
+    @Transactional(readOnly = true)
+    public CardResponse getCard(UUID cardId, UUID userId) {
+        CardAccess access = authzLookup.requireReadCard(cardId, userId);
+        return toResponse(access.card(), (int) access.position());
+    }
+
     @Transactional
     public CardResponse patchCard(UUID cardId, UUID userId, String title, String description, CardPriority priority, Instant dueDate, UUID assigneeUserId, long expectedVersion) {
-        authzLookup.requireWriteByCardId(cardId, userId);
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card with ID: " + cardId + " not found."));
+        // save() writes every column, list_id and rank included: hold the row so a move can't slip in between.
+        CardAccess access = authzLookup.requireWriteCardForUpdate(cardId, userId);
+        Card card = access.card();
 
         if (card.getVersion() != expectedVersion) {
             throw new ConflictException(
                     "CARD_VERSION_CONFLICT",
                     "Card was updated elsewhere!",
-                    toResponse(card)
+                    toResponse(card, (int) access.position())
             );
         }
 
+        Map<String, Object> before = editableFields(card);
+        CardFacets facetsBefore = new CardFacets(card.getListId(), card.getAssigneeUserId(), card.getPriority());
+
         if (title != null) {
             String t = title.trim();
             if (t.isBlank()) throw new IllegalArgumentException("TITLE cannot be blank.");
@@ -130,108 +158,360 @@ public class CardService {
         card.setVersion(card.getVersion() + 1);
         card.setUpdatedAt(Instant.now());
 
+        // A patch never changes the rank, so the position read with the card still holds.
         Card saved = cardRepository.save(card);
-        CardResponse res = toResponse(saved);
-
-        var list = listRepository.findById(saved.getListId()).orElseThrow(
-                () -> new IllegalStateException("List disappeared for card " + saved.getId())
-        );
-
-        publisher.enqueue(BoardEvent.of(list.getBoardId(), BoardEventType.CARD_UPDATED, new CardUpdatedData(res)));
+        CardResponse res = toResponse(saved, (int) access.position());
+
+        // Only the fields that actually changed go out: a priority tweak doesn't resend the description.
+        Map<String, Object> changes = new LinkedHashMap<>();
+        editableFields(saved).forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) changes.put(field, value);
+        });
+
+        publisher.enqueue(BoardEvent.of(access.boardId(), BoardEventType.CARD_UPDATED, new CardUpdatedData(
+                saved.getId(),
+                saved.getListId(),
+                expectedVersion,
+                saved.getVersion(),
+                saved.getUpdatedAt(),
+                changes
+        )), List.of(facetsBefore, CardFacets.of(res)));
 
         return res;
     }
 
-    @Transactional
-    public CardResponse moveCard(UUID cardId, UUID userId, UUID toListId, int toPosition, long expectedVersion) {
-        UUID fromBoardId = authzLookup.requireWriteByCardId(cardId, userId);
-        UUID toBoardId = authzLookup.requireWriteByListId(toListId, userId);
+    /**
+     * Moves a card under its list locks. The position in the response is counted after the move has
+     * committed and the locks are gone: it is a range scan over the list, and nothing in the move
+     * itself needs it. It can therefore already include a move that landed just after this one;
+     * clients reconcile through the CARD_MOVED events, which place cards by their neighbour.
+     */
+    public CardResponse moveCard(UUID cardId, UUID userId, UUID toListId, UUID beforeCardId, UUID afterCardId, long expectedVersion) {
+        CardRepository.CardMoveRow row = tx.execute(status -> moveCardLocked(cardId, userId, toListId, beforeCardId, afterCardId, expectedVersion));
+        return toResponse(row, (int) cardRepository.countRankedBefore(row.getListId(), row.getRank()));
+    }
 
-        if (!fromBoardId.equals(toBoardId)) {
+    private CardRepository.CardMoveRow moveCardLocked(UUID cardId, UUID userId, UUID toListId, UUID beforeCardId, UUID afterCardId, long expectedVersion) {
+        var location = authzLookup.requireWriteLocationByCardId(cardId, userId);
+        UUID fromListId = location.getListId();
+
+        // Lock source and destination lists (in id order): the move updates both card counters,
+        // and the anchors are resolved against the destination order as it is under the lock.
+        var locked = listRepository.findAllByIdForUpdate(Set.copyOf(List.of(fromListId, toListId)));
+        var toList = locked.stream()
+                .filter(l -> l.getId().equals(toListId))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("LIST_NOT_FOUND", "List with ID: " + toListId + " not found."));
+
+        // Same board as the card, so the write check above covers the destination too.
+        if (!location.getBoardId().equals(toList.getBoardId())) {
             throw new IllegalArgumentException("Cannot move cards across boards!");
         }
 
-        Card card = cardRepository.findById(cardId).orElseThrow(
-                () -> new NotFoundException("CARD_NOT_FOUND", "Card with ID: " + cardId + " not found.")
-        );
+        if (!fromListId.equals(toListId)) {
+            Integer wip = toList.getWipLimit(); // nullable
+            if (wip != null && toList.getCardCount() >= wip) {
+                throw new WipLimitExceededException(wip);
+            }
+        }
 
-        if (card.getVersion() != expectedVersion) {
+        CardRepository.CardMoveRow row = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            row = cardRepository.moveCard(
+                            cardId,
+                            fromListId,
+                            toListId,
+                            anchorOrNone(beforeCardId),
+                            anchorOrNone(afterCardId),
+                            expectedVersion,
+                            CardRanks.STEP
+                    )
+                    .orElseThrow(() -> new NotFoundException("CARD_NOT_FOUND", "Card with ID: " + cardId + " not found."));
+
+            if (!"NO_ROOM".equals(row.getStatus())) break;
+
+            // The two neighbours are adjacent: re-space the (already locked) list and place again.
+            rankRebalancer.rebalanceLocked(toListId);
+        }
+
+        String status = row.getStatus();
+
+        if ("NOOP".equals(status)) return row;
+
+        if ("CONFLICT".equals(status)) {
+            Card latest = cardRepository.findById(cardId).orElseThrow(
+                    () -> new NotFoundException("CARD_NOT_FOUND", "Card with ID: " + cardId + " not found.")
+            );
             throw new ConflictException(
                     "CARD_VERSION_CONFLICT",
                     "Card was updated elsewhere.",
-                    toResponse(card)
+                    toResponse(latest)
             );
         }
 
-        UUID fromListId = card.getListId();
-        int fromPos = card.getPosition();
+        if (!"MOVED".equals(status)) {
+            throw new IllegalStateException("No rank available in list " + toListId + " after rebalance");
+        }
 
-        var toList = (fromListId.equals(toListId)
-                ? listRepository.findById(toListId)
-                : listRepository.findByIdForUpdate(toListId)
-        ).orElseThrow(() -> new NotFoundException("LIST_NOT_FOUND", "List with ID: " + toListId + " not found."));
+        if (CardRanks.isDense(row.getBeforeRank(), row.getRank(), row.getAfterRank())) {
+            rankRebalancer.request(toListId);
+        }
 
-        if (!fromListId.equals(toListId)) {
-            Integer wip = toList.getWipLimit(); // nullable
-            if (wip != null) {
-                long destCount = cardRepository.countByListId(toListId);
-                if (destCount >= wip) {
-                    throw new WipLimitExceededException(wip);
-                }
+        CardPriority priority = CardPriority.valueOf(row.getPriority());
+
+        publisher.enqueue(BoardEvent.of(
+                toList.getBoardId(),
+                BoardEventType.CARD_MOVED,
+                new CardMovedData(row.getId(), row.getVersion(), row.getFromListId(), toListId, row.getBeforeCardId())
+        ), List.of(new CardFacets(row.getFromListId(), row.getAssigneeUserId(), priority), new CardFacets(toListId, row.getAssigneeUserId(), priority)));
+
+        return row;
+    }
+
+    /**
+     * Applies a batch of moves in one transaction. Every list involved is locked once (in id order),
+     * the moves are replayed in request order against the locked lists, and the resulting ranks are
+     * written with one statement. A single CARDS_MOVED event carries the whole batch.
+     */
+    @Transactional
+    public List<CardResponse> moveCards(UUID userId, List<BatchMoveItem> moves) {
+        Set<UUID> cardIds = new LinkedHashSet<>();
+        for (BatchMoveItem move : moves) {
+            if (!cardIds.add(move.cardId())) {
+                throw new IllegalArgumentException("Card " + move.cardId() + " appears more than once in the batch.");
             }
         }
 
-        long destCount = cardRepository.countByListId(toListId);
-        int maxInsertPos = (int) destCount; // allow insert at end == destCount
-        int toPos = Math.max(0, Math.min(toPosition, maxInsertPos));
+        var locations = authzLookup.requireWriteLocationsByCardIds(cardIds, userId);
+        UUID boardId = locations.values().iterator().next().getBoardId();
 
-        Instant now = Instant.now();
-        long newVersion = card.getVersion() + 1;
+        Set<UUID> listIds = new HashSet<>();
+        locations.values().forEach(l -> listIds.add(l.getListId()));
+        moves.forEach(m -> listIds.add(m.toListId()));
 
-        if (fromListId.equals(toListId)) {
-            if (toPos == fromPos) return toResponse(card);
+        Map<UUID, BoardList> lists = new HashMap<>();
+        for (BoardList list : listRepository.findAllByIdForUpdate(listIds)) {
+            lists.put(list.getId(), list);
+        }
 
-            cardRepository.setTempPosition(cardId, TEMP_POS);
+        for (BatchMoveItem move : moves) {
+            BoardList toList = lists.get(move.toListId());
+            if (toList == null) {
+                throw new NotFoundException("LIST_NOT_FOUND", "List with ID: " + move.toListId() + " not found.");
+            }
+            if (!boardId.equals(toList.getBoardId())) {
+                throw new IllegalArgumentException("Cannot move cards across boards!");
+            }
+        }
+
+        // Current order of every locked list, read after the locks are held.
+        Map<UUID, List<RankSlot>> order = new HashMap<>();
+        Map<UUID, RankSlot> slots = new HashMap<>();
+        Map<UUID, Long> versions = new HashMap<>();
+        listIds.forEach(id -> order.put(id, new ArrayList<>()));
+
+        for (CardRepository.RankedCard ranked : cardRepository.findRankedByListIds(listIds)) {
+            RankSlot slot = new RankSlot(ranked.getId(), ranked.getListId(), ranked.getRank());
+            order.get(ranked.getListId()).add(slot);
+            slots.put(slot.cardId, slot);
+            versions.put(slot.cardId, ranked.getVersion());
+        }
+
+        Map<UUID, RankSlot> placed = new LinkedHashMap<>();
+        List<UUID> anchors = new ArrayList<>();
+        List<UUID> fromListIds = new ArrayList<>();
 
-            if (toPos > fromPos) {
-                cardRepository.shiftLeftWithinList(fromListId, fromPos, toPos);
-            } else {
-                cardRepository.shiftRightWithinList(toListId, toPos, fromPos);
+        for (BatchMoveItem move : moves) {
+            RankSlot slot = slots.get(move.cardId());
+            Long version = versions.get(move.cardId());
+
+            // Moved out of the locked lists, or edited, since the client read it.
+            if (slot == null || version != move.expectedVersion().longValue()) {
+                throw versionConflict(move.cardId());
             }
 
-            cardRepository.applyMove(cardId, toListId, toPos, newVersion, now);
-        } else {
-            cardRepository.setTempPosition(cardId, TEMP_POS);
+            order.get(slot.listId).remove(slot);
 
-            cardRepository.closeGapAfterRemoval(fromListId, fromPos);
+            List<RankSlot> to = order.get(move.toListId());
+            int toPos = anchoredIndex(to, move.beforeCardId(), move.afterCardId());
 
-            cardRepository.bumpRightPhase1(toListId, toPos, SHIFT_OFFSET);
-            cardRepository.bumpRightPhase2(toListId, toPos, SHIFT_OFFSET);
+            fromListIds.add(slot.listId);
+            anchors.add((toPos > 0) ? to.get(toPos - 1).cardId : null);
 
-            cardRepository.applyMove(cardId, toListId, toPos, newVersion, now);
+            slot.listId = move.toListId();
+            slot.rank = rankForIndex(move.toListId(), to, toPos, placed);
+            to.add(toPos, slot);
+            placed.put(slot.cardId, slot);
         }
 
-        Card moved = cardRepository.findById(cardId)
-                .orElseThrow(() -> new IllegalStateException("Moved card disappeared!"));
+        for (UUID listId : listIds) {
+            Integer wip = lists.get(listId).getWipLimit();
+            int count = order.get(listId).size();
+            if (wip != null && count > wip && count > lists.get(listId).getCardCount()) {
+                throw new WipLimitExceededException(wip);
+            }
+        }
 
-        CardResponse res = toResponse(moved);
+        int n = placed.size();
+        UUID[] placedIds = new UUID[n];
+        UUID[] placedLists = new UUID[n];
+        Long[] placedRanks = new Long[n];
+        Long[] expected = new Long[n];
+
+        Map<UUID, Long> expectedByCard = new HashMap<>();
+        moves.forEach(m -> expectedByCard.put(m.cardId(), m.expectedVersion()));
+
+        int i = 0;
+        for (RankSlot slot : placed.values()) {
+            placedIds[i] = slot.cardId;
+            placedLists[i] = slot.listId;
+            placedRanks[i] = slot.rank;
+            expected[i] = expectedByCard.getOrDefault(slot.cardId, -1L);
+            i++;
+        }
 
-        publisher.enqueue(BoardEvent.of(
-                toList.getBoardId(),
-                BoardEventType.CARD_MOVED,
-                new CardMovedData(res, fromListId, fromPos, toListId, toPos)
-        ));
+        if (cardRepository.applyPlacements(placedIds, placedLists, placedRanks, expected) != n) {
+            throw new ConflictException("CARD_VERSION_CONFLICT", "Cards were updated elsewhere.", null);
+        }
 
-        return res;
+        UUID[] counterLists = listIds.toArray(new UUID[0]);
+        Integer[] counts = new Integer[counterLists.length];
+        Long[] maxRanks = new Long[counterLists.length];
+        for (int j = 0; j < counterLists.length; j++) {
+            List<RankSlot> listOrder = order.get(counterLists[j]);
+            counts[j] = listOrder.size();
+            maxRanks[j] = listOrder.stream().mapToLong(s -> s.rank).max().orElse(0);
+        }
+        listRepository.applyCounters(counterLists, counts, maxRanks);
+
+        Map<UUID, Card> saved = new HashMap<>();
+        for (Card card : cardRepository.findAllById(cardIds)) {
+            saved.put(card.getId(), card);
+        }
+
+        List<CardResponse> result = new ArrayList<>();
+        List<CardMovedData> moved = new ArrayList<>();
+        List<CardFacets> facets = new ArrayList<>();
+
+        for (int j = 0; j < moves.size(); j++) {
+            BatchMoveItem move = moves.get(j);
+            Card card = saved.get(move.cardId());
+            RankSlot slot = slots.get(move.cardId());
+            CardResponse res = toResponse(card, order.get(slot.listId).indexOf(slot));
+
+            result.add(res);
+            moved.add(new CardMovedData(res.id(), res.version(), fromListIds.get(j), move.toListId(), anchors.get(j)));
+            facets.add(new CardFacets(fromListIds.get(j), res.assigneeUserId(), res.priority()));
+            facets.add(CardFacets.of(res));
+        }
+
+        publisher.enqueue(BoardEvent.of(boardId, BoardEventType.CARDS_MOVED, new CardsMovedData(moved)), facets);
+
+        return result;
+    }
+
+    private ConflictException versionConflict(UUID cardId) {
+        Card latest = cardRepository.findById(cardId).orElseThrow(
+                () -> new NotFoundException("CARD_NOT_FOUND", "Card with ID: " + cardId + " not found.")
+        );
+        return new ConflictException("CARD_VERSION_CONFLICT", "Card was updated elsewhere.", toResponse(latest));
+    }
+
+    private static UUID anchorOrNone(UUID anchorCardId) {
+        return (anchorCardId == null) ? CardRepository.NO_ANCHOR : anchorCardId;
+    }
+
+    // Same anchor rules as CardRepository.moveCard, applied to an in-memory list order.
+    private static int anchoredIndex(List<RankSlot> to, UUID beforeCardId, UUID afterCardId) {
+        for (int i = 0; beforeCardId != null && i < to.size(); i++) {
+            if (to.get(i).cardId.equals(beforeCardId)) return i + 1;
+        }
+        for (int i = 0; afterCardId != null && i < to.size(); i++) {
+            if (to.get(i).cardId.equals(afterCardId)) return i;
+        }
+        return to.size();
+    }
+
+    /**
+     * Rank for inserting at index toPos of an in-memory list order. Re-spaces the whole list in memory
+     * (recording every touched slot in placed) when the neighbours are adjacent.
+     */
+    private long rankForIndex(UUID listId, List<RankSlot> to, int toPos, Map<UUID, RankSlot> placed) {
+        Long before = (toPos > 0) ? to.get(toPos - 1).rank : null;
+        Long after = (toPos < to.size()) ? to.get(toPos).rank : null;
+
+        OptionalLong rank = CardRanks.between(before, after);
+        if (rank.isEmpty()) {
+            for (int i = 0; i < to.size(); i++) {
+                RankSlot slot = to.get(i);
+                // Leave a full step free at toPos for the card being inserted.
+                slot.rank = (i + (i >= toPos ? 2 : 1)) * CardRanks.STEP;
+                placed.putIfAbsent(slot.cardId, slot);
+            }
+            return (toPos + 1) * CardRanks.STEP;
+        }
+
+        if (CardRanks.isDense(before, rank.getAsLong(), after)) {
+            rankRebalancer.request(listId);
+        }
+        return rank.getAsLong();
+    }
+
+    private static final class RankSlot {
+        private final UUID cardId;
+        private UUID listId;
+        private long rank;
+
+        private RankSlot(UUID cardId, UUID listId, long rank) {
+            this.cardId = cardId;
+            this.listId = listId;
+            this.rank = rank;
+        }
+    }
+
+    // The fields patchCard can change, keyed by their CardResponse names. Values may be null.
+    private static Map<String, Object> editableFields(Card c) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", c.getTitle());
+        fields.put("description", c.getDescription());
+        fields.put("priority", c.getPriority());
+        fields.put("dueDate", c.getDueDate());
+        fields.put("assigneeUserId", c.getAssigneeUserId());
+        return fields;
     }
 
     private CardResponse toResponse(Card c) {
+        return toResponse(c, (int) cardRepository.countRankedBefore(c.getListId(), c.getRank()));
+    }
+
+    private CardResponse toResponse(CardRepository.CardMoveRow row, int position) {
+        return new CardResponse(
+                row.getId(),
+                row.getListId(),
+                row.getTitle(),
+                row.getDescription(),
+                position,
+                row.getVersion(),
+                CardPriority.valueOf(row.getPriority()),
+                fromMicros(row.getDueDateMicros()),
+                fromMicros(row.getUpdatedAtMicros()),
+                row.getCreatedByUserId(),
+                row.getAssigneeUserId()
+        );
+    }
+
+    private static Instant fromMicros(Long micros) {
+        if (micros == null) return null;
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private CardResponse toResponse(Card c, int position) {
         return new CardResponse(
                 c.getId(),
                 c.getListId(),
                 c.getTitle(),
                 c.getDescription(),
-                c.getPosition(),
+                position,
                 c.getVersion(),
                 c.getPriority(),
                 c.getDueDate(),
@@ -243,34 +523,33 @@ public class CardService {
 
     @Transactional
     public void deleteCard(UUID cardId, UUID userId, long expectedVersion) {
-        authzLookup.requireWriteByCardId(cardId, userId);
-
-        Card card = cardRepository.findById(cardId).orElseThrow(
-                () -> new NotFoundException("CARD_NOT_FOUND", "Card with ID: " + cardId + " not found.")
-        );
+        CardAccess access = authzLookup.requireWriteCard(cardId, userId);
+        Card card = access.card();
+        UUID fromListId = card.getListId();
 
         if (card.getVersion() != expectedVersion) {
             throw new ConflictException(
                     "CARD_VERSION_CONFLICT",
                     "Card was updated elsewhere.",
-                    toResponse(card)
+                    toResponse(card, (int) access.position())
             );
         }
 
-        UUID fromListId = card.getListId();
-        int fromPos = card.getPosition();
+        // Lock the card's list: its card counter is decremented below. The delete re-checks list and
+        // version under that lock, in case the card moved between the read above and the lock.
+        listRepository.findByIdForUpdate(fromListId);
 
-        UUID boardId = cardRepository.findBoardIdByCardId(cardId)
-                .orElseThrow(() -> new IllegalStateException("Board not found for card " + cardId));
+        if (cardRepository.deleteIfCurrent(cardId, fromListId, expectedVersion) == 0) {
+            throw versionConflict(cardId);
+        }
 
-        cardRepository.delete(card);
-        cardRepository.closeGapAfterRemoval(fromListId, fromPos);
+        listRepository.recordCardRemoved(fromListId);
 
         publisher.enqueue(BoardEvent.of(
-                boardId,
+                access.boardId(),
                 BoardEventType.CARD_DELETED,
-                new CardDeletedData(cardId, fromListId, fromPos)
-        ));
+                new CardDeletedData(cardId, fromListId, (int) access.position())
+        ), List.of(new CardFacets(fromListId, card.getAssigneeUserId(), card.getPriority())));
     }
 
 }
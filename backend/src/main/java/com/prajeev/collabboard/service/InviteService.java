@@ -8,6 +8,7 @@ import com.prajeev.collabboard.dto.*;
 import com.prajeev.collabboard.exception.ConflictException;
 import com.prajeev.collabboard.exception.ForbiddenException;
 import com.prajeev.collabboard.exception.NotFoundException;
+import com.prajeev.collabboard.realtime.BoardEventPublisher;
 import com.prajeev.collabboard.repository.BoardInviteRepository;
 import com.prajeev.collabboard.repository.BoardMembershipRepository;
 import com.prajeev.collabboard.repository.BoardRepository;
@@ -30,14 +31,16 @@ public class InviteService {
     private final BoardMembershipRepository boardMembershipRepository;
     private final BoardRepository boardRepository;
     private final InviteEmailService inviteEmailService;
+    private final BoardEventPublisher publisher;
 
-    public InviteService(BoardAuthService boardAuthService, BoardInviteRepository inviteRepository, InviteTokenService tokenService, BoardMembershipRepository boardMembershipRepository, BoardRepository boardRepository, InviteEmailService inviteEmailService) {
+    public InviteService(BoardAuthService boardAuthService, BoardInviteRepository inviteRepository, InviteTokenService tokenService, BoardMembershipRepository boardMembershipRepository, BoardRepository boardRepository, InviteEmailService inviteEmailService, BoardEventPublisher publisher) {
         this.boardAuthService = boardAuthService;
         this.inviteRepository = inviteRepository;
         this.tokenService = tokenService;
         this.boardMembershipRepository = boardMembershipRepository;
         this.boardRepository = boardRepository;
         this.inviteEmailService = inviteEmailService;
+        this.publisher = publisher;
     }
 
     @Transactional
@@ -124,6 +127,8 @@ public class InviteService {
 
         if (!alreadyMember) {
             boardMembershipRepository.save(new BoardMembership(invite.getBoardId(), userId, invite.getRole()));
+            boardAuthService.evict(invite.getBoardId(), userId);
+            publisher.membershipChanged(invite.getBoardId(), userId, true);
         }
 
         invite.setStatus(InviteStatus.ACCEPTED);
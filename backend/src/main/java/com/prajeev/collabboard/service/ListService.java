@@ -47,8 +47,8 @@ public class ListService {
 
     @Transactional
     public void deleteList(UUID listId, UUID userId) {
+        // Also the existence check: an unknown list fails with LIST_NOT_FOUND.
         UUID boardId = authzLookupService.requireWriteByListId(listId, userId);
-        var list = listRepository.findById(listId).orElseThrow(() -> new NotFoundException("LIST_NOT_FOUND", "List with ID: " + listId + " not found"));
 
         listRepository.deleteById(listId);
 
@@ -0,0 +1,25 @@
+-- Cards are ordered by a sparse rank key instead of a dense 0..n-1 position.
+-- A move/insert only writes the moved card (rank = midpoint of its new neighbours);
+-- the position sent to clients is derived from the rank order.
+ALTER TABLE cards
+    ADD COLUMN rank BIGINT NULL;
+
+UPDATE cards c
+   SET rank = r.rn * 65536
+  FROM (
+        SELECT id, row_number() OVER (PARTITION BY list_id ORDER BY position, id) AS rn
+          FROM cards
+       ) r
+ WHERE c.id = r.id;
+
+ALTER TABLE cards
+    ALTER COLUMN rank SET NOT NULL;
+
+-- Dropping the column also drops the (list_id, position) unique constraint/index.
+ALTER TABLE cards
+    DROP COLUMN position;
+
+CREATE INDEX IF NOT EXISTS ix_cards_list_rank ON cards(list_id, rank);
+
+-- (list_id, rank) covers every lookup that used (list_id) alone.
+DROP INDEX IF EXISTS ix_cards_list;
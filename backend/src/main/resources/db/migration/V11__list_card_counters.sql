@@ -0,0 +1,18 @@
+-- Per-list counters kept in step with card writes, so WIP checks and appends
+-- read the (already locked) list row instead of scanning its cards.
+ALTER TABLE lists
+    ADD COLUMN card_count integer NOT NULL DEFAULT 0,
+    ADD COLUMN max_rank bigint NOT NULL DEFAULT 0;
+
+UPDATE lists l
+   SET card_count = s.card_count,
+       max_rank = s.max_rank
+  FROM (
+        SELECT list_id, count(*) AS card_count, max(rank) AS max_rank
+          FROM cards
+         GROUP BY list_id
+       ) s
+ WHERE l.id = s.list_id;
+
+ALTER TABLE lists
+    ADD CONSTRAINT lists_card_count_non_negative CHECK (card_count >= 0);
@@ -0,0 +1,21 @@
+-- Cards carry their board id so board-wide reads (snapshot, authorization) don't join through lists.
+ALTER TABLE cards
+    ADD COLUMN board_id UUID NULL;
+
+UPDATE cards c
+   SET board_id = l.board_id
+  FROM lists l
+ WHERE l.id = c.list_id;
+
+ALTER TABLE cards
+    ALTER COLUMN board_id SET NOT NULL;
+
+-- The composite key ties cards.board_id to the board of cards.list_id, so it can't drift.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_lists_id_board ON lists(id, board_id);
+
+ALTER TABLE cards
+    ADD CONSTRAINT fk_cards_list_board
+        FOREIGN KEY (list_id, board_id) REFERENCES lists(id, board_id) ON DELETE CASCADE;
+
+-- Snapshot order: every card of a board grouped by list, ranked within each list.
+CREATE INDEX IF NOT EXISTS ix_cards_board_list_rank ON cards(board_id, list_id, rank);
@@ -0,0 +1,3 @@
+-- Bumped by every board mutation that publishes an event; snapshot ETags and caches are keyed by it.
+ALTER TABLE boards
+    ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Append-only log of published board events, one row per board revision, written in the
+-- same transaction as the change. Clients that missed events catch up from here.
+CREATE TABLE IF NOT EXISTS board_events (
+    board_id    UUID        NOT NULL REFERENCES boards(id) ON DELETE CASCADE,
+    revision    BIGINT      NOT NULL,
+    event_id    UUID        NOT NULL,
+    type        TEXT        NOT NULL,
+    payload     JSONB       NOT NULL,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (board_id, revision)
+);
@@ -0,0 +1,2 @@
+-- Retention pruning deletes the oldest events across all boards.
+CREATE INDEX IF NOT EXISTS ix_board_events_created_at ON board_events(created_at);
@@ -0,0 +1,12 @@
+-- Re-spacing ranks (rebalance, batch neighbours) doesn't change a card for its readers:
+-- leave updated_at alone when rank is the only column that changed.
+CREATE OR REPLACE FUNCTION set_updated_at()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF to_jsonb(NEW) - 'rank' - 'updated_at' = to_jsonb(OLD) - 'rank' - 'updated_at' THEN
+    RETURN NEW;
+  END IF;
+  NEW.updated_at = now();
+RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -2,20 +2,45 @@ package com.prajeev.collabboard;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajeev.collabboard.domain.User;
+import com.prajeev.collabboard.repository.UserRepository;
+import com.prajeev.collabboard.service.BoardEventLogService;
+import com.prajeev.collabboard.service.CardService;
+import com.prajeev.collabboard.service.JwtService;
 import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -36,12 +61,48 @@ public class BoardApiIT {
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.docker.compose.enabled", () -> false);
+        registry.add("JWT_SECRET", () -> "board-api-test-secret-0123456789abcdef");
+        registry.add("APP_FRONTEND_BASE_URL", () -> "http://localhost:5173");
+        registry.add("APP_MAIL_FROM", () -> "test@example.com");
+        registry.add("BREVO_SMTP_KEY", () -> "unused");
     }
 
     @Autowired
     MockMvc mvc;
 
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JwtService jwtService;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    BoardEventLogService eventLogService;
+
+    @Autowired
+    CardService cardService;
+
+    @Autowired
+    TransactionTemplate tx;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // A fresh user per test and their bearer token, for the endpoints that need a caller.
+    private UUID userId;
+    private String token;
+
+    @BeforeEach
+    void signIn() {
+        userId = UUID.randomUUID();
+        String email = userId + "@example.com";
+        userRepository.save(new User(userId, email, "unused", "Alice", OffsetDateTime.now()));
+        token = jwtService.issueToken(userId, email);
+    }
+
     @Test
     void createBoard_returns201_andPayload() throws Exception {
         mvc.perform(post("/boards")
@@ -328,10 +389,577 @@ public class BoardApiIT {
                 .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:5173"));
     }
 
+    @Test
+    void moveCard_advancesUpdatedAt() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        JsonNode card = createCard(todo, "T1");
+
+        Thread.sleep(10);
+
+        // updated_at is the transaction's now(); a later request must see a later timestamp.
+        MvcResult res = moveCard(card.get("id").asText(), doing, null, null, card.get("version").asLong())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.listId").value(doing))
+                .andExpect(jsonPath("$.version").value(card.get("version").asLong() + 1))
+                .andReturn();
+        JsonNode moved = readTree(res.getResponse().getContentAsString());
+
+        assertTrue(Instant.parse(moved.get("updatedAt").asText()).isAfter(Instant.parse(card.get("updatedAt").asText())));
+    }
+
+    @Test
+    void batchMove_respacedNeighbours_keepTheirUpdatedAt() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+        String b = createCard(todo, "B").get("id").asText();
+        JsonNode c = createCard(doing, "C");
+
+        // Adjacent ranks leave no room between A and B, so placing C there re-spaces the list.
+        jdbc.update("update cards set rank = 1 where id = ?::uuid", a);
+        jdbc.update("update cards set rank = 2 where id = ?::uuid", b);
+        Instant aUpdatedAt = updatedAtOf(a);
+
+        Thread.sleep(10);
+
+        MvcResult res = batchMove("""
+                {"moves":[{"cardId":"%s","toListId":"%s","beforeCardId":"%s","expectedVersion":%d}]}
+                """.formatted(c.get("id").asText(), todo, a, c.get("version").asLong()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].position").value(1))
+                .andReturn();
+        JsonNode moved = readTree(res.getResponse().getContentAsString()).get(0);
+
+        assertTrue(Instant.parse(moved.get("updatedAt").asText()).isAfter(Instant.parse(c.get("updatedAt").asText())));
+        assertEquals(aUpdatedAt, updatedAtOf(a));
+        assertEquals(1L, versionOf(a));
+    }
+
+    @Test
+    void moveCard_keepsSnapshotOrderAcrossMoves() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        JsonNode a = createCard(todo, "A");
+        JsonNode b = createCard(todo, "B");
+        JsonNode c = createCard(todo, "C");
+        JsonNode d = createCard(todo, "D");
+
+        // A to the end: B C D A
+        moveCard(a.get("id").asText(), todo, null, null, 1).andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(3));
+        // D in front of B: D B C A
+        moveCard(d.get("id").asText(), todo, null, b.get("id").asText(), 1).andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(0));
+        // C right after D: D C B A
+        moveCard(c.get("id").asText(), todo, d.get("id").asText(), null, 1).andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(1));
+        // B over to Doing and back to the end: D C A B
+        moveCard(b.get("id").asText(), doing, null, null, 1).andExpect(status().isOk());
+        moveCard(b.get("id").asText(), todo, null, null, 2).andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(3));
+
+        assertEquals(List.of("D", "C", "A", "B"), titlesInOrder(boardId, todo));
+        assertEquals(List.of(), titlesInOrder(boardId, doing));
+    }
+
+    @Test
+    void moveCard_toWhereItAlreadyIs_isNoop() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        JsonNode a = createCard(todo, "A");
+        JsonNode b = createCard(todo, "B");
+
+        moveCard(b.get("id").asText(), todo, a.get("id").asText(), null, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(1))
+                .andExpect(jsonPath("$.version").value(1));
+
+        assertEquals(1L, versionOf(b.get("id").asText()));
+    }
+
+    @Test
+    void moveCard_staleVersion_returns409_withLatestCard() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+
+        moveCard(a, doing, null, null, 1).andExpect(status().isOk());
+
+        moveCard(a, todo, null, null, 1)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("CARD_VERSION_CONFLICT"))
+                .andExpect(jsonPath("$.latest.listId").value(doing))
+                .andExpect(jsonPath("$.latest.version").value(2));
+
+        assertEquals(List.of("A"), titlesInOrder(boardId, doing));
+    }
+
+    @Test
+    void moveCard_betweenAdjacentRanks_rebalancesAndRetries() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+        String b = createCard(todo, "B").get("id").asText();
+        String c = createCard(doing, "C").get("id").asText();
+
+        // No rank left between A and B: the first attempt is NO_ROOM.
+        jdbc.update("update cards set rank = 1 where id = ?::uuid", a);
+        jdbc.update("update cards set rank = 2 where id = ?::uuid", b);
+
+        moveCard(c, todo, a, null, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.listId").value(todo))
+                .andExpect(jsonPath("$.position").value(1))
+                .andExpect(jsonPath("$.version").value(2));
+
+        assertEquals(List.of("A", "C", "B"), titlesInOrder(boardId, todo));
+        assertEquals(65536L, rankOf(a));
+        assertEquals(98304L, rankOf(c));
+        assertEquals(131072L, rankOf(b));
+    }
+
+    @Test
+    void listCounters_followCreateMoveAndDelete() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+
+        String a = createCard(todo, "A").get("id").asText();
+        String b = createCard(todo, "B").get("id").asText();
+        assertEquals(2, cardCountOf(todo));
+        assertEquals(rankOf(b), maxRankOf(todo));
+
+        // A move within a list leaves the count alone and raises max_rank when it lands last.
+        moveCard(a, todo, null, null, 1).andExpect(status().isOk());
+        assertEquals(2, cardCountOf(todo));
+        assertEquals(rankOf(a), maxRankOf(todo));
+
+        moveCard(b, doing, null, null, 1).andExpect(status().isOk());
+        assertEquals(1, cardCountOf(todo));
+        assertEquals(1, cardCountOf(doing));
+        assertEquals(rankOf(b), maxRankOf(doing));
+        assertCountersMatchCards(todo);
+
+        mvc.perform(authed(delete("/cards/{cardId}", b))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedVersion\":2}"))
+                .andExpect(status().isNoContent());
+        assertEquals(0, cardCountOf(doing));
+        assertCountersMatchCards(doing);
+
+        // Appends still go after every rank the list has handed out.
+        String c = createCard(doing, "C").get("id").asText();
+        assertEquals(1, cardCountOf(doing));
+        assertEquals(rankOf(c), maxRankOf(doing));
+    }
+
+    @Test
+    void batchMove_oneStaleVersion_rollsBackTheWholeBatch() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+        String b = createCard(todo, "B").get("id").asText();
+
+        // B was edited since the client read it.
+        mvc.perform(authed(patch("/cards/{cardId}", b))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"B2\",\"expectedVersion\":1}"))
+                .andExpect(status().isOk());
+
+        batchMove("""
+                {"moves":[
+                  {"cardId":"%s","toListId":"%s","expectedVersion":1},
+                  {"cardId":"%s","toListId":"%s","expectedVersion":1}
+                ]}
+                """.formatted(a, doing, b, doing))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("CARD_VERSION_CONFLICT"));
+
+        // A's move, valid on its own, didn't happen either.
+        assertEquals(List.of("A", "B2"), titlesInOrder(boardId, todo));
+        assertEquals(List.of(), titlesInOrder(boardId, doing));
+        assertEquals(1L, versionOf(a));
+        assertEquals(2, cardCountOf(todo));
+        assertEquals(0, cardCountOf(doing));
+    }
+
+    @Test
+    void moveCard_anchorsNotInTheTargetList_fallBackToTheEnd() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+        String b = createCard(todo, "B").get("id").asText();
+        String c = createCard(todo, "C").get("id").asText();
+        String x = createCard(doing, "X").get("id").asText();
+
+        // Anchored to a card of another list: ignored, A goes to the end.
+        moveCard(a, todo, x, null, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(2));
+        assertEquals(List.of("B", "C", "A"), titlesInOrder(boardId, todo));
+
+        // Anchored to a card that doesn't exist: ignored as well.
+        moveCard(b, todo, null, UUID.randomUUID().toString(), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(2));
+        assertEquals(List.of("C", "A", "B"), titlesInOrder(boardId, todo));
+
+        // Anchored to itself: no neighbour, so the end of the list.
+        moveCard(c, todo, c, null, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(2));
+        assertEquals(List.of("A", "B", "C"), titlesInOrder(boardId, todo));
+
+        // Both anchors set: beforeCardId wins.
+        moveCard(x, todo, a, c, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(1));
+        assertEquals(List.of("A", "X", "B", "C"), titlesInOrder(boardId, todo));
+    }
+
+    @Test
+    void getSnapshot_matchingIfNoneMatch_returns304_untilTheBoardChanges() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+
+        String etag = mvc.perform(authed(get("/boards/{boardId}", boardId)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(authed(get("/boards/{boardId}", boardId)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // Weak comparison, and a match anywhere in the list.
+        mvc.perform(authed(get("/boards/{boardId}", boardId)).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+
+        createCard(todo, "T1");
+
+        mvc.perform(authed(get("/boards/{boardId}", boardId)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.cardsByListId['" + todo + "'][0].title").value("T1"));
+    }
+
+    @Test
+    void getChanges_returnsTheMissedEventsInRevisionOrder() throws Exception {
+        String boardId = createBoard();
+        long since = revisionOf(boardId);
+
+        String todo = createList(boardId, "Todo");
+        createCard(todo, "T1");
+
+        mvc.perform(authed(get("/boards/{boardId}/changes", boardId)).param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision").value(since + 2))
+                .andExpect(jsonPath("$.events.length()").value(2))
+                .andExpect(jsonPath("$.events[0].type").value("LIST_CREATED"))
+                .andExpect(jsonPath("$.events[0].revision").value(since + 1))
+                .andExpect(jsonPath("$.events[1].type").value("CARD_CREATED"))
+                .andExpect(jsonPath("$.events[1].revision").value(since + 2))
+                .andExpect(jsonPath("$.snapshot").value(nullValue()));
+
+        // Already current: nothing to replay.
+        mvc.perform(authed(get("/boards/{boardId}/changes", boardId)).param("since", String.valueOf(since + 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(0))
+                .andExpect(jsonPath("$.snapshot").value(nullValue()));
+    }
+
+    @Test
+    void moveEvents_nameTheCardTheMovedCardNowFollows() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+        String b = createCard(todo, "B").get("id").asText();
+        String c = createCard(doing, "C").get("id").asText();
+        long since = revisionOf(boardId);
+
+        // A after C, then B to the top of Doing: B C A
+        moveCard(a, doing, c, null, 1).andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(1));
+        moveCard(b, doing, null, c, 1).andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(0));
+        // C back to Todo in a batch: B A | C
+        batchMove("""
+                {"moves":[{"cardId":"%s","toListId":"%s","expectedVersion":1}]}
+                """.formatted(c, todo)).andExpect(status().isOk());
+
+        mvc.perform(authed(get("/boards/{boardId}/changes", boardId)).param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(3))
+                .andExpect(jsonPath("$.events[0].type").value("CARD_MOVED"))
+                .andExpect(jsonPath("$.events[0].data.fromListId").value(todo))
+                .andExpect(jsonPath("$.events[0].data.toListId").value(doing))
+                .andExpect(jsonPath("$.events[0].data.beforeCardId").value(c))
+                .andExpect(jsonPath("$.events[1].data.beforeCardId").value(nullValue()))
+                .andExpect(jsonPath("$.events[2].type").value("CARDS_MOVED"))
+                .andExpect(jsonPath("$.events[2].data.moves[0].cardId").value(c))
+                .andExpect(jsonPath("$.events[2].data.moves[0].beforeCardId").value(nullValue()));
+
+        assertEquals(List.of("B", "A"), titlesInOrder(boardId, doing));
+        assertEquals(List.of("C"), titlesInOrder(boardId, todo));
+    }
+
+    @Test
+    void getChanges_unknownRevision_fallsBackToASnapshot() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        long current = revisionOf(boardId);
+
+        mvc.perform(authed(get("/boards/{boardId}/changes", boardId)).param("since", String.valueOf(current + 5)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision").value(current))
+                .andExpect(jsonPath("$.events.length()").value(0))
+                .andExpect(jsonPath("$.snapshot.revision").value(current))
+                .andExpect(jsonPath("$.snapshot.lists[0].id").value(todo));
+    }
+
+    @Test
+    void pruneExpired_dropsOldEvents_andChangesFallBackToASnapshot() throws Exception {
+        String boardId = createBoard();
+        long since = revisionOf(boardId);
+
+        String todo = createList(boardId, "Todo");
+        createCard(todo, "T1");
+        long current = since + 2;
+
+        // Age the first event past the retention window (PT24H); the second stays.
+        jdbc.update("update board_events set created_at = now() - interval '2 days' where board_id = ?::uuid and revision = ?",
+                boardId, since + 1);
+
+        eventLogService.pruneExpired();
+
+        assertEquals(List.of(current), jdbc.queryForList(
+                "select revision from board_events where board_id = ?::uuid order by revision", Long.class, boardId));
+
+        // The gap can't be replayed any more: the client gets a snapshot instead.
+        mvc.perform(authed(get("/boards/{boardId}/changes", boardId)).param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision").value(current))
+                .andExpect(jsonPath("$.events.length()").value(0))
+                .andExpect(jsonPath("$.snapshot.revision").value(current))
+                .andExpect(jsonPath("$.snapshot.cardsByListId['" + todo + "'][0].title").value("T1"));
+
+        // What is still logged replays as before.
+        mvc.perform(authed(get("/boards/{boardId}/changes", boardId)).param("since", String.valueOf(since + 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(1))
+                .andExpect(jsonPath("$.events[0].type").value("CARD_CREATED"))
+                .andExpect(jsonPath("$.snapshot").value(nullValue()));
+    }
+
+    @Test
+    void patchCard_racingAMove_neverWritesTheOldListBack() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+        createCard(todo, "B");
+
+        CountDownLatch moved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        try (ExecutorService threads = Executors.newFixedThreadPool(2)) {
+            // The move is applied but held uncommitted, like one that lands while the patch is in flight.
+            Future<?> move = threads.submit(() -> tx.executeWithoutResult(status -> {
+                cardService.moveCard(UUID.fromString(a), userId, UUID.fromString(doing), null, null, 1L);
+                moved.countDown();
+                try {
+                    commit.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(moved.await(10, TimeUnit.SECONDS));
+
+            // Edits the card as the client last saw it (version 1, in Todo).
+            Future<MvcResult> patch = threads.submit(() -> mvc.perform(authed(patch("/cards/{cardId}", a))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\":\"A2\",\"expectedVersion\":1}"))
+                    .andReturn());
+
+            Thread.sleep(500);
+            commit.countDown();
+            move.get(10, TimeUnit.SECONDS);
+
+            // The patch waited for the move and then found its version stale.
+            assertEquals(409, patch.get(10, TimeUnit.SECONDS).getResponse().getStatus());
+        }
+
+        assertEquals(List.of("B"), titlesInOrder(boardId, todo));
+        assertEquals(List.of("A"), titlesInOrder(boardId, doing));
+        assertEquals(1, cardCountOf(todo));
+        assertEquals(1, cardCountOf(doing));
+        assertCountersMatchCards(todo);
+        assertCountersMatchCards(doing);
+    }
+
+    @Test
+    void deleteBoard_waitsForAnInFlightMove_andRemovesEverything() throws Exception {
+        String boardId = createBoard();
+        String todo = createList(boardId, "Todo");
+        String doing = createList(boardId, "Doing");
+        String a = createCard(todo, "A").get("id").asText();
+        createCard(doing, "B");
+
+        CountDownLatch moved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        try (ExecutorService threads = Executors.newFixedThreadPool(2)) {
+            // A move holding its list, card and board locks until released.
+            Future<?> move = threads.submit(() -> tx.executeWithoutResult(status -> {
+                cardService.moveCard(UUID.fromString(a), userId, UUID.fromString(doing), null, null, 1L);
+                moved.countDown();
+                try {
+                    commit.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(moved.await(10, TimeUnit.SECONDS));
+
+            Future<MvcResult> delete = threads.submit(() -> mvc.perform(authed(delete("/boards/{boardId}", boardId)))
+                    .andReturn());
+
+            Thread.sleep(500);
+            commit.countDown();
+            move.get(10, TimeUnit.SECONDS);
+
+            // Lists first, then cards, then the board: the delete queues behind the move instead of deadlocking.
+            assertEquals(204, delete.get(10, TimeUnit.SECONDS).getResponse().getStatus());
+        }
+
+        assertEquals(0, jdbc.queryForObject("select count(*) from lists where board_id = ?::uuid", Integer.class, boardId));
+        assertEquals(0, jdbc.queryForObject("select count(*) from cards where board_id = ?::uuid", Integer.class, boardId));
+        assertEquals(0, jdbc.queryForObject("select count(*) from boards where id = ?::uuid", Integer.class, boardId));
+    }
+
 //    ************* HELPER METHODS **************
 
     private static String idFromLocation(MvcResult res) {
         String location = res.getResponse().getHeader("Location");
         return location.substring(location.lastIndexOf('/') + 1);
     }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String createBoard() throws Exception {
+        return idFromLocation(mvc.perform(authed(post("/boards"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"My board\"}"))
+                .andExpect(status().isCreated())
+                .andReturn());
+    }
+
+    private String createList(String boardId, String name) throws Exception {
+        return idFromLocation(mvc.perform(authed(post("/boards/{boardId}/lists", boardId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn());
+    }
+
+    private JsonNode createCard(String listId, String title) throws Exception {
+        MvcResult res = mvc.perform(authed(post("/lists/{listId}/cards", listId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return readTree(res.getResponse().getContentAsString());
+    }
+
+    private ResultActions moveCard(String cardId, String toListId, String beforeCardId, String afterCardId,
+                                   long expectedVersion) throws Exception {
+        var body = objectMapper.createObjectNode()
+                .put("toListId", toListId)
+                .put("beforeCardId", beforeCardId)
+                .put("afterCardId", afterCardId)
+                .put("expectedVersion", expectedVersion);
+
+        return mvc.perform(authed(post("/cards/{cardId}/move", cardId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()));
+    }
+
+    private ResultActions batchMove(String json) throws Exception {
+        return mvc.perform(authed(post("/cards/batch-move"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+    }
+
+    // Titles of a list's cards as the snapshot orders them, after checking positions run 0..n-1.
+    private List<String> titlesInOrder(String boardId, String listId) throws Exception {
+        MvcResult res = mvc.perform(authed(get("/boards/{boardId}", boardId)))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode cards = readTree(res.getResponse().getContentAsString()).get("cardsByListId").get(listId);
+
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            assertEquals(i, cards.get(i).get("position").asInt());
+            titles.add(cards.get(i).get("title").asText());
+        }
+        return titles;
+    }
+
+    private long revisionOf(String boardId) throws Exception {
+        MvcResult res = mvc.perform(authed(get("/boards/{boardId}", boardId)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return readTree(res.getResponse().getContentAsString()).get("revision").asLong();
+    }
+
+    private Instant updatedAtOf(String cardId) {
+        return jdbc.queryForObject("select updated_at from cards where id = ?::uuid", OffsetDateTime.class, cardId).toInstant();
+    }
+
+    private int cardCountOf(String listId) {
+        return jdbc.queryForObject("select card_count from lists where id = ?::uuid", Integer.class, listId);
+    }
+
+    private long maxRankOf(String listId) {
+        return jdbc.queryForObject("select max_rank from lists where id = ?::uuid", Long.class, listId);
+    }
+
+    // card_count is exact; max_rank only has to stay at or above every rank in the list.
+    private void assertCountersMatchCards(String listId) {
+        int count = jdbc.queryForObject("select count(*) from cards where list_id = ?::uuid", Integer.class, listId);
+        long maxRank = jdbc.queryForObject("select coalesce(max(rank), 0) from cards where list_id = ?::uuid", Long.class, listId);
+
+        assertEquals(count, cardCountOf(listId));
+        assertTrue(maxRankOf(listId) >= maxRank);
+    }
+
+    private long rankOf(String cardId) {
+        return jdbc.queryForObject("select rank from cards where id = ?::uuid", Long.class, cardId);
+    }
+
+    private long versionOf(String cardId) {
+        return jdbc.queryForObject("select version from cards where id = ?::uuid", Long.class, cardId);
+    }
 }
@@ -0,0 +1,106 @@
+package com.prajeev.collabboard;
+
+import com.prajeev.collabboard.domain.Board;
+import com.prajeev.collabboard.domain.User;
+import com.prajeev.collabboard.realtime.BoardSubscriptionRegistry;
+import com.prajeev.collabboard.repository.UserRepository;
+import com.prajeev.collabboard.service.BoardService;
+import com.prajeev.collabboard.service.ListService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application nodes against one Postgres: an event committed on node A must reach
+ * node B's local broker through the LISTEN/NOTIFY relay.
+ */
+@Testcontainers
+public class ClusterFanoutIT {
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16")
+                    .withDatabaseName("collabboard")
+                    .withUsername("collab")
+                    .withPassword("collab");
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(CollabboardApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.docker.compose.enabled=false",
+                        "JWT_SECRET=cluster-fanout-test-secret-0123456789abcdef",
+                        "APP_FRONTEND_BASE_URL=http://localhost:5173",
+                        "APP_MAIL_FROM=test@example.com",
+                        "BREVO_SMTP_KEY=unused"
+                )
+                .run();
+    }
+
+    @Test
+    void eventCommittedOnOneNode_isDeliveredToTheOthersBroker() throws Exception {
+        try (ConfigurableApplicationContext nodeA = startNode();
+             ConfigurableApplicationContext nodeB = startNode()) {
+
+            BlockingQueue<Message<?>> brokerB = new LinkedBlockingQueue<>();
+            nodeB.getBean("brokerChannel", SubscribableChannel.class).subscribe(brokerB::add);
+
+            UUID userId = UUID.randomUUID();
+            nodeA.getBean(UserRepository.class).save(
+                    new User(userId, userId + "@example.com", "unused", "Alice", OffsetDateTime.now())
+            );
+            Board board = nodeA.getBean(BoardService.class).createBoard("Cluster board", userId);
+            String topic = "/topic/boards/" + board.getId();
+
+            // Node B only relays boards it has subscribers for.
+            StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+            subscribe.setSessionId("session-b");
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(topic);
+            nodeB.getBean(BoardSubscriptionRegistry.class).onSubscribe(new SessionSubscribeEvent(
+                    this,
+                    MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders())
+            ));
+
+            // Node B's LISTEN connection comes up asynchronously; keep producing events until one arrives.
+            boolean delivered = false;
+            for (int attempt = 0; attempt < 20 && !delivered; attempt++) {
+                nodeA.getBean(ListService.class).createList(board.getId(), userId, "List " + attempt, null);
+
+                Message<?> message;
+                while ((message = brokerB.poll(500, TimeUnit.MILLISECONDS)) != null) {
+                    String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                    String body = new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+
+                    if (topic.equals(destination) && body.contains("LIST_CREATED")) {
+                        delivered = true;
+                        break;
+                    }
+                }
+            }
+
+            assertTrue(delivered, "LIST_CREATED committed on node A never reached node B's broker");
+        }
+    }
+}
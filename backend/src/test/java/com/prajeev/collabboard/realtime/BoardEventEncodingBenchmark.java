@@ -0,0 +1,113 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.domain.CardPriority;
+import com.prajeev.collabboard.dto.CardResponse;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Encode cost of fanning one CARD_CREATED event (a full card) out to N subscribers of a board.
+ *  - perSubscriberJson: JSON encoded for every session send (the cost this change guards against).
+ *  - convertAndSend: JSON for the event log, then again by the message converter (previous path).
+ *  - preEncoded: JSON encoded once at enqueue and shared by all sends (current path).
+ * Every variant also pays the per-session STOMP frame encoding, which is the same for all three.
+ *
+ * Not a unit test (surefire skips it): run main() on the test classpath.
+ */
+public class BoardEventEncodingBenchmark {
+    private static final int SUBSCRIBERS = 300;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 5_000;
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+    private static final StompEncoder STOMP = new StompEncoder();
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        BoardEvent<CardCreatedData> event = sampleEvent();
+        StompHeaderAccessor[] sessions = sessionHeaders();
+
+        report("perSubscriberJson", event, sessions, BoardEventEncodingBenchmark::perSubscriberJson);
+        report("convertAndSend", event, sessions, BoardEventEncodingBenchmark::convertAndSend);
+        report("preEncoded", event, sessions, BoardEventEncodingBenchmark::preEncoded);
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private interface Fanout {
+        void run(BoardEvent<?> event, StompHeaderAccessor[] sessions);
+    }
+
+    private static void perSubscriberJson(BoardEvent<?> event, StompHeaderAccessor[] sessions) {
+        for (StompHeaderAccessor session : sessions) {
+            frame(session, JSON.writeValueAsBytes(event));
+        }
+    }
+
+    private static void convertAndSend(BoardEvent<?> event, StompHeaderAccessor[] sessions) {
+        sink += JSON.writeValueAsString(event).length();
+        byte[] json = JSON.writeValueAsBytes(event);
+        for (StompHeaderAccessor session : sessions) {
+            frame(session, json);
+        }
+    }
+
+    private static void preEncoded(BoardEvent<?> event, StompHeaderAccessor[] sessions) {
+        byte[] json = JSON.writeValueAsBytes(event);
+        for (StompHeaderAccessor session : sessions) {
+            frame(session, json);
+        }
+    }
+
+    private static void frame(StompHeaderAccessor session, byte[] payload) {
+        sink += STOMP.encode(session.getMessageHeaders(), payload).length;
+    }
+
+    private static void report(String name, BoardEvent<?> event, StompHeaderAccessor[] sessions, Fanout fanout) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) fanout.run(event, sessions);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) fanout.run(event, sessions);
+        long perEvent = (System.nanoTime() - start) / MEASURED_ROUNDS;
+
+        System.out.printf("%-18s %,10d ns/event (%d subscribers)%n", name, perEvent, SUBSCRIBERS);
+    }
+
+    private static BoardEvent<CardCreatedData> sampleEvent() {
+        CardResponse card = new CardResponse(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                "Investigate flaky deploy on staging",
+                "Steps to reproduce, logs and the rollback plan. ".repeat(12),
+                3,
+                42L,
+                CardPriority.HIGH,
+                Instant.now(),
+                Instant.now(),
+                UUID.randomUUID(),
+                UUID.randomUUID()
+        );
+
+        return BoardEvent.of(UUID.randomUUID(), BoardEventType.CARD_CREATED, new CardCreatedData(card))
+                .withRevision(1234);
+    }
+
+    private static StompHeaderAccessor[] sessionHeaders() {
+        StompHeaderAccessor[] sessions = new StompHeaderAccessor[SUBSCRIBERS];
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            headers.setSubscriptionId("sub-" + i);
+            headers.setDestination("/topic/boards/" + UUID.randomUUID());
+            headers.setMessageId(UUID.randomUUID().toString());
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            sessions[i] = headers;
+        }
+        return sessions;
+    }
+}
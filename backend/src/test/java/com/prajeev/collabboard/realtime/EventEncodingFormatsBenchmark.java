@@ -0,0 +1,155 @@
+package com.prajeev.collabboard.realtime;
+
+import com.prajeev.collabboard.domain.CardPriority;
+import com.prajeev.collabboard.dto.CardResponse;
+import com.prajeev.collabboard.dto.ListResponse;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Frame size and encode/decode throughput of the event encodings over a mix of event types close to
+ * what a busy board produces (mostly small card edits and moves, some creates, few list changes).
+ *  - encode: what fanout pays once per frame, i.e. EventEncoders.transcode from the logged JSON.
+ *  - decode: what a client pays per frame to get a tree back.
+ *
+ * Not a unit test (surefire skips it): run main() on the test classpath.
+ */
+public class EventEncodingFormatsBenchmark {
+    private static final int EVENTS = 2_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+    private static final Map<EventEncoding, ObjectMapper> READERS = Map.of(
+            EventEncoding.JSON, JSON,
+            EventEncoding.CBOR, CBORMapper.builder().build(),
+            EventEncoding.SMILE, SmileMapper.builder().build()
+    );
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        EventEncoders encoders = new EventEncoders(JSON, List.of(EventEncoding.CBOR, EventEncoding.SMILE));
+        List<byte[]> frames = sampleFrames(new Random(42));
+
+        System.out.printf("%-6s %12s %10s %16s %16s%n", "format", "avg bytes", "vs json", "encode ev/s", "decode ev/s");
+
+        long jsonBytes = totalBytes(frames);
+        for (EventEncoding encoding : EventEncoding.values()) {
+            List<byte[]> encoded = frames.stream().map(f -> encoders.transcode(f, encoding)).toList();
+            long bytes = totalBytes(encoded);
+
+            double encodeRate = rate(() -> {
+                for (byte[] frame : frames) sink += encoders.transcode(frame, encoding).length;
+            });
+            ObjectMapper reader = READERS.get(encoding);
+            double decodeRate = rate(() -> {
+                for (byte[] frame : encoded) sink += reader.readTree(frame).size();
+            });
+
+            System.out.printf("%-6s %12.1f %9.0f%% %,16.0f %,16.0f%n",
+                    encoding.name().toLowerCase(),
+                    (double) bytes / frames.size(),
+                    100.0 * bytes / jsonBytes,
+                    encodeRate,
+                    decodeRate);
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static double rate(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) round.run();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) round.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return EVENTS * (double) MEASURED_ROUNDS / seconds;
+    }
+
+    private static long totalBytes(List<byte[]> frames) {
+        long total = 0;
+        for (byte[] frame : frames) total += frame.length;
+        return total;
+    }
+
+    // One JSON frame per event, encoded as the publisher does.
+    private static List<byte[]> sampleFrames(Random random) {
+        UUID boardId = UUID.randomUUID();
+        List<UUID> lists = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        List<byte[]> frames = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            UUID listId = lists.get(random.nextInt(lists.size()));
+            UUID otherListId = lists.get(random.nextInt(lists.size()));
+            int roll = random.nextInt(100);
+
+            BoardEvent<?> event;
+            if (roll < 45) {
+                event = BoardEvent.of(boardId, BoardEventType.CARD_UPDATED, cardUpdate(random, listId));
+            } else if (roll < 70) {
+                event = BoardEvent.of(boardId, BoardEventType.CARD_MOVED, cardMove(random, listId, otherListId));
+            } else if (roll < 80) {
+                event = BoardEvent.of(boardId, BoardEventType.CARD_CREATED, new CardCreatedData(card(random, listId)));
+            } else if (roll < 88) {
+                event = BoardEvent.of(boardId, BoardEventType.CARD_DELETED, new CardDeletedData(UUID.randomUUID(), listId, random.nextInt(20)));
+            } else if (roll < 95) {
+                List<CardMovedData> moves = new ArrayList<>();
+                for (int m = 0; m < 2 + random.nextInt(6); m++) moves.add(cardMove(random, listId, otherListId));
+                event = BoardEvent.of(boardId, BoardEventType.CARDS_MOVED, new CardsMovedData(moves));
+            } else if (roll < 98) {
+                event = BoardEvent.of(boardId, BoardEventType.LIST_CREATED, new ListCreatedData(
+                        new ListResponse(UUID.randomUUID(), boardId, "Review " + i, random.nextInt(8), random.nextBoolean() ? 5 : null)
+                ));
+            } else {
+                event = BoardEvent.of(boardId, BoardEventType.LIST_DELETED, new ListDeletedData(listId));
+            }
+
+            frames.add(JSON.writeValueAsBytes(event.withRevision(i + 1)));
+        }
+        return frames;
+    }
+
+    private static CardUpdatedData cardUpdate(Random random, UUID listId) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        switch (random.nextInt(4)) {
+            case 0 -> changes.put("description", "Notes from the sync, next steps and owners. ".repeat(1 + random.nextInt(10)));
+            case 1 -> changes.put("title", "Follow up on ticket " + random.nextInt(10_000));
+            case 2 -> changes.put("priority", CardPriority.values()[random.nextInt(CardPriority.values().length)]);
+            default -> changes.put("assigneeUserId", random.nextBoolean() ? UUID.randomUUID() : null);
+        }
+
+        long version = 1 + random.nextInt(50);
+        return new CardUpdatedData(UUID.randomUUID(), listId, version, version + 1, Instant.now(), changes);
+    }
+
+    private static CardMovedData cardMove(Random random, UUID fromListId, UUID toListId) {
+        return new CardMovedData(UUID.randomUUID(), 1 + random.nextInt(50), fromListId, toListId, random.nextBoolean() ? UUID.randomUUID() : null);
+    }
+
+    private static CardResponse card(Random random, UUID listId) {
+        return new CardResponse(
+                UUID.randomUUID(),
+                listId,
+                "Investigate flaky deploy on staging",
+                "Steps to reproduce, logs and the rollback plan. ".repeat(random.nextInt(12)),
+                random.nextInt(20),
+                1L,
+                CardPriority.MEDIUM,
+                random.nextBoolean() ? Instant.now() : null,
+                Instant.now(),
+                UUID.randomUUID(),
+                random.nextBoolean() ? UUID.randomUUID() : null
+        );
+    }
+}
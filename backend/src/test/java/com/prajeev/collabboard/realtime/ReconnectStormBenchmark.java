@@ -0,0 +1,197 @@
+package com.prajeev.collabboard.realtime;
+
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reconnect storm against a running server: every client connects at once, subscribes to the
+ * board and fetches its snapshot, the way the board page does after a deploy. Rejected CONNECT/SUBSCRIBE
+ * frames and 429 snapshots are retried after the server's retry-after, so the run shows how long the
+ * whole herd takes to be served and how much admission control turned away on the way.
+ *
+ * Not a unit test (surefire skips it): start the app, then run main() on the test classpath with
+ *   baseUrl accessToken boardId [clients]
+ * e.g. http://localhost:8080 eyJ... 6f1c...-... 2000. The token's user must be a member of the board.
+ */
+public class ReconnectStormBenchmark {
+    private static final int DEFAULT_CLIENTS = 1_000;
+    private static final int MAX_ATTEMPTS = 20;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(2);
+
+    private static final AtomicInteger connectRejections = new AtomicInteger();
+    private static final AtomicInteger subscribeRejections = new AtomicInteger();
+    private static final AtomicInteger snapshotRejections = new AtomicInteger();
+    private static final AtomicInteger failures = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: ReconnectStormBenchmark baseUrl accessToken boardId [clients]");
+            return;
+        }
+
+        String baseUrl = args[0].replaceAll("/$", "");
+        String token = args[1];
+        String boardId = args[2];
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CLIENTS;
+
+        WebSocketStompClient stomp = new WebSocketStompClient(new StandardWebSocketClient());
+        HttpClient http = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+        String wsUrl = baseUrl.replaceFirst("^http", "ws") + "/ws-native";
+
+        List<Long> readyMillis = Collections.synchronizedList(new ArrayList<>(clients));
+        List<StompSession> sessions = Collections.synchronizedList(new ArrayList<>(clients));
+
+        long start = System.nanoTime();
+        try (ExecutorService herd = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                herd.submit(() -> {
+                    StompSession session;
+                    try {
+                        session = reconnect(stomp, http, wsUrl, baseUrl, token, boardId);
+                    } catch (IllegalStateException e) {
+                        System.err.println(e.getMessage());
+                        session = null;
+                    }
+                    if (session == null) {
+                        failures.incrementAndGet();
+                        return;
+                    }
+                    sessions.add(session);
+                    readyMillis.add((System.nanoTime() - start) / 1_000_000);
+                });
+            }
+        }
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+        List<Long> sorted = new ArrayList<>(readyMillis);
+        Collections.sort(sorted);
+
+        System.out.printf("clients %d, ready %d, gave up %d, in %,d ms%n", clients, sorted.size(), failures.get(), totalMillis);
+        System.out.printf("rejected: connect %d, subscribe %d, snapshot %d%n",
+                connectRejections.get(), subscribeRejections.get(), snapshotRejections.get());
+        if (!sorted.isEmpty()) {
+            System.out.printf("time to ready ms: p50 %,d  p95 %,d  p99 %,d  max %,d%n",
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted.getLast());
+        }
+
+        for (StompSession session : sessions) session.disconnect();
+        stomp.stop();
+    }
+
+    // Connected, subscribed and holding a snapshot; null after MAX_ATTEMPTS.
+    private static StompSession reconnect(WebSocketStompClient stomp, HttpClient http, String wsUrl, String baseUrl, String token, String boardId) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            ErrorCapture errors = new ErrorCapture();
+            StompHeaders connect = new StompHeaders();
+            connect.add("Authorization", "Bearer " + token);
+
+            StompSession session;
+            try {
+                session = stomp.connectAsync(wsUrl, new WebSocketHttpHeaders(), connect, errors)
+                        .get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                if (errors.retryAfter != null) connectRejections.incrementAndGet();
+                pause(errors.retryAfter);
+                continue;
+            }
+
+            session.subscribe("/topic/boards/" + boardId, errors);
+
+            Duration snapshotRetry;
+            try {
+                snapshotRetry = fetchSnapshot(http, baseUrl, token, boardId);
+            } catch (IllegalStateException e) {
+                session.disconnect();
+                throw e;
+            }
+            if (snapshotRetry != null) {
+                snapshotRejections.incrementAndGet();
+                session.disconnect();
+                pause(snapshotRetry);
+                continue;
+            }
+
+            // A rejected SUBSCRIBE ends the session with an ERROR frame.
+            if (!session.isConnected()) {
+                if (errors.retryAfter != null) subscribeRejections.incrementAndGet();
+                pause(errors.retryAfter);
+                continue;
+            }
+            return session;
+        }
+        return null;
+    }
+
+    // null once the snapshot arrived, otherwise how long the server asked to wait (429).
+    private static Duration fetchSnapshot(HttpClient http, String baseUrl, String token, String boardId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/boards/" + boardId))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        HttpResponse<Void> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (Exception e) {
+            throw new IllegalStateException("GET /boards/" + boardId + " failed: " + e);
+        }
+
+        if (response.statusCode() == 200) return null;
+        if (response.statusCode() != 429) {
+            throw new IllegalStateException("GET /boards/" + boardId + " returned " + response.statusCode());
+        }
+
+        return response.headers().firstValue("Retry-After")
+                .map(seconds -> Duration.ofSeconds(Long.parseLong(seconds)))
+                .orElse(DEFAULT_RETRY_AFTER);
+    }
+
+    private static void pause(Duration retryAfter) {
+        try {
+            Thread.sleep(retryAfter != null ? retryAfter : DEFAULT_RETRY_AFTER);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    // Remembers the retry-after of an ERROR frame (delivered to the session handler); board events are ignored.
+    private static final class ErrorCapture extends StompSessionHandlerAdapter implements StompFrameHandler {
+        private volatile Duration retryAfter;
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            String value = headers.getFirst("retry-after");
+            if (value != null) retryAfter = Duration.ofMillis(Long.parseLong(value));
+        }
+    }
+}
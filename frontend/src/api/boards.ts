@@ -1,4 +1,5 @@
 import type { BoardSnapshot } from "../features/board/types";
+import type { AnyBoardEvent } from "../features/realtime/types";
 import { apiFetch } from "./http";
 import type { BoardRole } from "./members";
 
@@ -23,6 +24,17 @@ export const getBoardSnapshot = async (boardId: string): Promise<BoardSnapshot>
   return apiFetch<BoardSnapshot>(`/boards/${boardId}`);
 };
 
+// Either the events after `since` or, when they can't be replayed, a full snapshot.
+export type BoardChangesResponse = {
+  revision: number;
+  events: AnyBoardEvent[];
+  snapshot: BoardSnapshot | null;
+};
+
+export const getBoardChanges = async (boardId: string, since: number): Promise<BoardChangesResponse> => {
+  return apiFetch<BoardChangesResponse>(`/boards/${boardId}/changes?since=${since}`);
+};
+
 export const listBoards = async (): Promise<BoardResponse[]> => {
   return apiFetch<BoardResponse[]>("/boards");
 }
@@ -33,12 +33,19 @@ export type CreateCardRequest = {
   assigneeUserId?: string | null;
 }
 
+// Placement is relative to neighbour cards in the destination list; beforeCardId wins when both
+// are set, and with neither the card goes to the end of the list.
 export type MoveCardRequest = {
   toListId: string;
-  toPosition: number;
+  beforeCardId?: string | null;
+  afterCardId?: string | null;
   expectedVersion: number;
 };
 
+export type BatchMoveItem = MoveCardRequest & {
+  cardId: string;
+};
+
 export type DeleteCardRequest = {
   expectedVersion: number;
 };
@@ -50,6 +57,10 @@ export const createCard = async (listId: string, req: CreateCardRequest): Promis
   });
 };
 
+export const getCard = async (cardId: string): Promise<CardResponse> => {
+  return apiFetch<CardResponse>(`/cards/${cardId}`);
+};
+
 export const updateCard = async (
   cardId: string,
   updates: UpdateCardRequest
@@ -67,6 +78,13 @@ export const moveCard = async (cardId: string, req: MoveCardRequest): Promise<Ca
   });
 };
 
+export const batchMoveCards = async (moves: BatchMoveItem[]): Promise<CardResponse[]> => {
+  return apiFetch<CardResponse[]>(`/cards/batch-move`, {
+    method: "POST",
+    body: JSON.stringify({ moves }),
+  });
+};
+
 export const deleteCard = async (cardId: string, req: DeleteCardRequest): Promise<void> => {
   await apiFetch<void>(`/cards/${cardId}`, {
     method: "DELETE",
@@ -19,11 +19,14 @@ const apiBaseUrl = () => {
 export class ApiError extends Error {
     status: number;
     body: any;
+    // From the Retry-After header (e.g. 429 when the server is busy), in milliseconds.
+    retryAfterMs: number | null;
 
-    constructor(status: number, message: string, body: any) {
+    constructor(status: number, message: string, body: any, retryAfterMs: number | null = null) {
         super(message);
         this.status = status;
         this.body = body;
+        this.retryAfterMs = retryAfterMs;
     }
 }
 
@@ -48,7 +51,8 @@ export const apiFetch = async <T>(path: string, options: RequestInit = {}): Prom
     }
 
     if (!res.ok) {
-        throw new ApiError(res.status, body?.message ?? res.statusText, body);
+        const retryAfter = Number(res.headers.get("Retry-After"));
+        throw new ApiError(res.status, body?.message ?? res.statusText, body, retryAfter > 0 ? retryAfter * 1000 : null);
     }
 
     return body as T;
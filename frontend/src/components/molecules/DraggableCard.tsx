@@ -1,7 +1,7 @@
 import { CSS } from "@dnd-kit/utilities";
 import { useSortable } from "@dnd-kit/sortable";
 import DragIndicatorIcon from "@mui/icons-material/DragIndicator";
-import { Box, IconButton } from "@mui/material";
+import { Box, IconButton, Typography } from "@mui/material";
 import CardPreview from "./CardPreview";
 import type { CardPriority } from "../../api/cards";
 
@@ -12,10 +12,12 @@ type Props = {
   description?: string;
   priority?: CardPriority;
   dueDate?: string | null;
+  // Name of someone else currently dragging this card, if any.
+  draggedBy?: string | null;
   onClick?: () => void;
 };
 
-const DraggableCard = ({ cardId, listId, title, description, priority, dueDate, onClick }: Props) => {
+const DraggableCard = ({ cardId, listId, title, description, priority, dueDate, draggedBy, onClick }: Props) => {
   const { attributes, listeners, setNodeRef, transform, transition, isDragging } = useSortable({
     id: cardId,
     data: { type: "CARD", cardId, listId },
@@ -29,7 +31,11 @@ const DraggableCard = ({ cardId, listId, title, description, priority, dueDate,
   };
 
   return (
-    <Box ref={setNodeRef} style={style} sx={{ position: "relative" }}>
+    <Box
+      ref={setNodeRef}
+      style={style}
+      sx={{ position: "relative", outline: draggedBy ? "2px dashed" : "none", outlineColor: "secondary.main", borderRadius: 1 }}
+    >
       <IconButton
         size="small"
         {...attributes}
@@ -56,6 +62,12 @@ const DraggableCard = ({ cardId, listId, title, description, priority, dueDate,
         dueDate={dueDate}
         onClick={onClick}
       />
+
+      {draggedBy && (
+        <Typography variant="caption" color="secondary" sx={{ display: "block", px: 1, fontWeight: 700 }}>
+          {draggedBy} is moving this
+        </Typography>
+      )}
     </Box>
   );
 };
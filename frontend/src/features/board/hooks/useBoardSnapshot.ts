@@ -1,29 +1,84 @@
 import { useCallback, useEffect, useRef, useState } from "react";
 import type { BoardSnapshot } from "../types";
-import { getBoardSnapshot } from "../../../api/boards";
+import { getBoardChanges, getBoardSnapshot } from "../../../api/boards";
 import { getApiErrorMessage } from "../../../api/errors";
 import { subscribeToBoardTopic } from "../../realtime/webSocketClient";
-import type { AnyBoardEvent } from "../../realtime/types";
-import { applyEvent } from "../reducer/applyEvent";
+import type { AnyBoardEvent, PresenceEntry, PresenceFrame } from "../../realtime/types";
+import { applyEvent, replaceCard } from "../reducer/applyEvent";
+import { getCard } from "../../../api/cards";
 import { ApiError } from "../../../api/http";
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL ?? "http://localhost:8080";
 
-const useBoardSnapshot = (boardId: string | undefined) => {
+// How long an out-of-order event may wait for the revisions before it before we re-sync over REST.
+const GAP_TIMEOUT_MS = 3000;
+
+// filter: a SUBSCRIBE filter spec (see boardFilterSpec); cards outside it are not kept up to date.
+const useBoardSnapshot = (boardId: string | undefined, filter: string | null = null) => {
     const [data, setData] = useState<BoardSnapshot | null>(null);
     const [loading, setLoading] = useState<boolean>(false);
     const [error, setError] = useState<string | null>(null);
+    // Other connections on this board, by clientId (our own entry is left out).
+    const [presence, setPresence] = useState<Map<string, PresenceEntry>>(new Map());
 
     const unsubRef = useRef<null | (() => void)>(null);
 
+    // Highest revision handed to the reducer; null until the first snapshot arrives.
+    const revisionRef = useRef<number | null>(null);
+    // Events waiting for the revisions before them, by revision. null marks a superseded revision.
+    const pendingRef = useRef<Map<number, AnyBoardEvent | null>>(new Map());
+    const gapTimerRef = useRef<ReturnType<typeof setTimeout> | null>(null);
+    const catchUpRef = useRef<() => Promise<void>>(async () => {});
+    // Cards an event couldn't be applied to (see applyEvent); fetched in full after the next render.
+    const staleCardsRef = useRef<Set<string>>(new Set());
+
+    const drain = useCallback(() => {
+        const pending = pendingRef.current;
+        let revision = revisionRef.current;
+        if (revision === null) return;
+
+        const ready: AnyBoardEvent[] = [];
+        while (pending.has(revision + 1)) {
+            const evt = pending.get(revision + 1);
+            if (evt) ready.push(evt);
+            pending.delete(revision + 1);
+            revision++;
+        }
+
+        for (const r of [...pending.keys()]) {
+            if (r <= revision) pending.delete(r);
+        }
+
+        revisionRef.current = revision;
+
+        if (ready.length) {
+            const markStale = (cardId: string) => staleCardsRef.current.add(cardId);
+            setData((prev) => (prev ? ready.reduce((s, evt) => applyEvent(s, evt, markStale), prev) : prev));
+        }
+
+        if (gapTimerRef.current) {
+            clearTimeout(gapTimerRef.current);
+            gapTimerRef.current = null;
+        }
+
+        if (pending.size) {
+            gapTimerRef.current = setTimeout(() => void catchUpRef.current(), GAP_TIMEOUT_MS);
+        }
+    }, []);
+
+    const acceptSnapshot = useCallback((snap: BoardSnapshot) => {
+        revisionRef.current = snap.revision;
+        setData(snap);
+        drain();
+    }, [drain]);
+
     const load = useCallback(async () => {
         if (!boardId) return;
         setError(null);
         setLoading(true);
 
         try {
-            const snap = await getBoardSnapshot(boardId);
-            setData(snap);
+            acceptSnapshot(await getBoardSnapshot(boardId));
         }
 
         catch (e: unknown) {
@@ -32,6 +87,13 @@ const useBoardSnapshot = (boardId: string | undefined) => {
                 return;
             }
 
+            // Server busy (e.g. everyone reloading after a deploy): try again later, spread out.
+            if (e instanceof ApiError && e.status === 429) {
+                const delay = (e.retryAfterMs ?? 2000) * (1 + Math.random());
+                setTimeout(() => void load(), delay);
+                return;
+            }
+
             setError(getApiErrorMessage(e));
             setData(null);
         }
@@ -39,40 +101,139 @@ const useBoardSnapshot = (boardId: string | undefined) => {
         finally {
             setLoading(false);
         }
-    }, [boardId]);
+    }, [boardId, acceptSnapshot]);
+
+    // Re-sync over REST: the missed events if the server still has them, else a full snapshot.
+    catchUpRef.current = async () => {
+        const since = revisionRef.current;
+        if (!boardId || since === null) return;
+
+        try {
+            const changes = await getBoardChanges(boardId, since);
+
+            if (changes.snapshot) {
+                acceptSnapshot(changes.snapshot);
+                return;
+            }
+
+            for (const evt of changes.events) pendingRef.current.set(evt.revision, evt);
+            drain();
+        }
+
+        catch (e: unknown) {
+            if (e instanceof ApiError && e.status === 401) {
+                window.location.href = "/login";
+                return;
+            }
+
+            console.log("Board re-sync failed: ", e);
+        }
+    };
 
     useEffect(() => {
+        const stale = [...staleCardsRef.current];
+        if (!stale.length) return;
+        staleCardsRef.current.clear();
+
+        for (const cardId of stale) {
+            getCard(cardId)
+                .then((card) => setData((prev) => (prev ? replaceCard(prev, card) : prev)))
+                .catch((e: unknown) => console.log("Card refresh failed: ", e)); // deleted meanwhile: its event follows
+        }
+    }, [data]);
+
+    // Also on a filter change: cards outside the previous filter may be stale.
+    useEffect(() => {
+        revisionRef.current = null;
+        pendingRef.current.clear();
         load();
-    }, [load]);
+    }, [load, filter]);
 
     useEffect(() => {
         unsubRef.current?.();
         unsubRef.current = null;
 
+        setPresence(new Map());
         if (!boardId) return;
 
+        // Per connection; a reconnect starts over with a new snapshot.
+        let selfClientId: string | null = null;
+
         unsubRef.current = subscribeToBoardTopic({
             baseURL: API_BASE_URL,
             boardId,
-            onMessage: (raw) => {
+            // On a reconnect the server replays what we missed since this revision.
+            subscribeHeaders: (): Record<string, string> => ({
+                ...(revisionRef.current === null ? {} : { "last-revision": String(revisionRef.current) }),
+                ...(filter ? { filter } : {}),
+            }),
+            onMessage: (raw, headers) => {
                 try {
-                    const evt = JSON.parse(raw) as AnyBoardEvent;
-                    setData((prev) => (prev ? applyEvent(prev, evt) : prev));
+                    // A frame holds one event, or an array with everything one server transaction changed.
+                    const parsed = JSON.parse(raw) as AnyBoardEvent | AnyBoardEvent[];
+                    const events = Array.isArray(parsed) ? parsed : [parsed];
+
+                    if (events.some((evt) => evt.type === "RESYNC_REQUIRED")) {
+                        void catchUpRef.current();
+                        return;
+                    }
+
+                    // Queue the whole batch before draining so it reaches the reducer in one update.
+                    for (const evt of events) {
+                        pendingRef.current.set(evt.revision, evt);
+                        for (const r of evt.supersedes ?? []) {
+                            if (!pendingRef.current.has(r)) pendingRef.current.set(r, null);
+                        }
+                    }
+
+                    // Filtered: revisions from covers-from up to this frame's last event that it lacks were filtered out.
+                    const coversFrom = Number(headers["covers-from"]);
+                    if (Number.isFinite(coversFrom) && events.length) {
+                        const last = Math.max(...events.map((evt) => evt.revision));
+                        for (let r = Math.max(coversFrom, (revisionRef.current ?? 0) + 1); r <= last; r++) {
+                            if (!pendingRef.current.has(r)) pendingRef.current.set(r, null);
+                        }
+                    }
+                    drain();
                 }
 
                 catch (e) {
                     console.log("WebSocket message parsing error: ", e);
                 }
+            },
+            onPresence: (raw) => {
+                try {
+                    const frame = JSON.parse(raw) as PresenceFrame;
+                    if (frame.snapshot) selfClientId = frame.you;
+
+                    setPresence((prev) => {
+                        const next = frame.snapshot ? new Map<string, PresenceEntry>() : new Map(prev);
+                        for (const clientId of frame.left) next.delete(clientId);
+                        for (const entry of frame.present) {
+                            if (entry.clientId !== selfClientId) next.set(entry.clientId, entry);
+                        }
+                        return next;
+                    });
+                }
+
+                catch (e) {
+                    console.log("Presence message parsing error: ", e);
+                }
             }
         });
 
         return () => {
             unsubRef.current?.();
             unsubRef.current = null;
+
+            if (gapTimerRef.current) {
+                clearTimeout(gapTimerRef.current);
+                gapTimerRef.current = null;
+            }
         }
-    }, [boardId]);
+    }, [boardId, filter, drain]);
 
-    return { data, loading, error, setData, reload: load };
+    return { data, loading, error, setData, reload: load, presence };
 };
 
-export default useBoardSnapshot;
\ No newline at end of file
+export default useBoardSnapshot;
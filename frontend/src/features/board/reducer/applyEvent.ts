@@ -1,4 +1,4 @@
-import type { AnyBoardEvent } from "../../realtime/types";
+import type { AnyBoardEvent, CardMove } from "../../realtime/types";
 import type { BoardSnapshot, Card } from "../types";
 
 const upsertInCardList = (cards: Card[], card: Card) => {
@@ -15,11 +15,66 @@ const removeCardFromList = (cards: Card[], cardId: string): Card[] => {
     return cards.filter((c) => c.id !== cardId);
 }
 
-export const applyEvent = (state: BoardSnapshot, event: AnyBoardEvent): BoardSnapshot => {
+const findCard = (state: BoardSnapshot, cardId: string, listId: string): Card | undefined => {
+    return state.cardsByListId[listId]?.find((c) => c.id === cardId)
+        ?? Object.values(state.cardsByListId).flat().find((c) => c.id === cardId);
+}
+
+const withPositions = (cards: Card[]): Card[] => cards.map((c, i) => (c.position === i ? c : { ...c, position: i }));
+
+// Moves the card we already hold; a card we don't hold, or hold at an older version, is reported stale.
+const applyMove = (next: BoardSnapshot, move: CardMove, onStaleCard: (cardId: string) => void) => {
+    const card = findCard(next, move.cardId, move.fromListId);
+    if (!card) {
+        onStaleCard(move.cardId);
+        return;
+    }
+
+    if (card.version < move.version - 1) onStaleCard(move.cardId);
+
+    next.cardsByListId[card.listId] = withPositions(removeCardFromList(next.cardsByListId[card.listId] ?? [], card.id));
+
+    const toCards = removeCardFromList(next.cardsByListId[move.toListId] ?? [], card.id);
+    let insertAt = 0;
+    if (move.beforeCardId) {
+        const anchor = toCards.findIndex((c) => c.id === move.beforeCardId);
+        // The card it follows isn't one we hold (filtered out): the end of the list is the best guess.
+        insertAt = anchor === -1 ? toCards.length : anchor + 1;
+    }
+    toCards.splice(insertAt, 0, {
+        ...card,
+        listId: move.toListId,
+        version: Math.max(card.version, move.version),
+    });
+    next.cardsByListId[move.toListId] = withPositions(toCards);
+}
+
+// Puts a card fetched in full in place of the one we hold, unless ours is already as new.
+export const replaceCard = (state: BoardSnapshot, card: Card): BoardSnapshot => {
+    const current = findCard(state, card.id, card.listId);
+    if (current && current.version >= card.version) return state;
+
+    const cardsByListId = { ...state.cardsByListId };
+    if (current) cardsByListId[current.listId] = removeCardFromList(cardsByListId[current.listId] ?? [], card.id);
+    if (!cardsByListId[card.listId]) return { ...state, cardsByListId };
+
+    cardsByListId[card.listId] = upsertInCardList(cardsByListId[card.listId], card);
+    return { ...state, cardsByListId };
+}
+
+export const applyEvent = (
+    state: BoardSnapshot,
+    event: AnyBoardEvent,
+    onStaleCard: (cardId: string) => void = () => {}
+): BoardSnapshot => {
     if (event.boardId !== state.board.id) return state;
 
+    // Already reflected (replayed after a reconnect, or older than the snapshot).
+    if (event.revision <= state.revision) return state;
+
     const next: BoardSnapshot = {
         ...state,
+        revision: event.revision,
         cardsByListId: { ...state.cardsByListId },
         lists: [...state.lists],
     };
@@ -32,21 +87,32 @@ export const applyEvent = (state: BoardSnapshot, event: AnyBoardEvent): BoardSna
     }
 
     if (event.type === "CARD_UPDATED") {
-        const card = event.data.card;
-        const listCards = next.cardsByListId[card.listId] ?? [];
-        next.cardsByListId[card.listId] = upsertInCardList(listCards, card);
+        const { cardId, listId, baseVersion, version, updatedAt, changes } = event.data;
+        const card = findCard(next, cardId, listId);
+
+        // Already there (our own edit), or we hold some other version the delta doesn't apply to.
+        if (card && card.version >= version) return next;
+        if (!card || card.version !== baseVersion) {
+            onStaleCard(cardId);
+            return next;
+        }
+
+        next.cardsByListId[card.listId] = upsertInCardList(next.cardsByListId[card.listId] ?? [], {
+            ...card,
+            ...changes,
+            version,
+            updatedAt,
+        });
         return next;
     }
 
     if (event.type === "CARD_MOVED") {
-        const { card, fromListId } = event.data;
-
-        const fromCards = next.cardsByListId[fromListId] ?? [];
-        next.cardsByListId[fromListId] = removeCardFromList(fromCards, card.id);
-
-        const toCards = next.cardsByListId[card.listId] ?? [];
-        next.cardsByListId[card.listId] = upsertInCardList(toCards, card);
+        applyMove(next, event.data, onStaleCard);
+        return next;
+    }
 
+    if (event.type === "CARDS_MOVED") {
+        for (const move of event.data.moves) applyMove(next, move, onStaleCard);
         return next;
     }
 
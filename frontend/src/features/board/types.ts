@@ -31,4 +31,5 @@ export type BoardSnapshot = {
     board: Board;
     lists: BoardList[];
     cardsByListId: Record<string, Card[]>;
+    revision: number;
 };
\ No newline at end of file
@@ -5,6 +5,9 @@ export type BoardEventBase = {
   eventId: string;
   ts: string;
   boardId: string;
+  revision: number;
+  // Earlier revisions this event replaced when the server coalesced updates to the same card.
+  supersedes?: number[];
 };
 
 export type CardCreatedEvent = BoardEventBase & {
@@ -12,14 +15,38 @@ export type CardCreatedEvent = BoardEventBase & {
   data: { card: CardResponse };
 };
 
+export type CardChanges = Partial<Pick<CardResponse, "title" | "description" | "priority" | "dueDate" | "assigneeUserId">>;
+
+// Only the changed fields; it applies to a card at baseVersion; any other version needs the full card.
 export type CardUpdatedEvent = BoardEventBase & {
   type: "CARD_UPDATED";
-  data: { card: CardResponse };
+  data: {
+    cardId: string;
+    listId: string;
+    baseVersion: number;
+    version: number;
+    updatedAt: string;
+    changes: CardChanges;
+  };
+};
+
+export type CardMove = {
+  cardId: string;
+  version: number;
+  fromListId: string;
+  toListId: string;
+  // The card it now follows in toListId; null when it went to the top.
+  beforeCardId: string | null;
 };
 
 export type CardMovedEvent = BoardEventBase & {
   type: "CARD_MOVED";
-  data: { card: CardResponse; fromListId: string };
+  data: CardMove;
+};
+
+export type CardsMovedEvent = BoardEventBase & {
+  type: "CARDS_MOVED";
+  data: { moves: CardMove[] };
 };
 
 export type ListCreatedEvent = BoardEventBase & {
@@ -37,12 +64,60 @@ export type ListDeletedEvent = BoardEventBase & {
   data: { listId: string };
 };
 
+// Sent to one subscriber when its missed events can't be replayed; it should re-sync over REST.
+export type ResyncRequiredEvent = BoardEventBase & {
+  type: "RESYNC_REQUIRED";
+  data: null;
+};
+
 export type AnyBoardEvent =
   | CardCreatedEvent
   | CardUpdatedEvent
   | CardMovedEvent
+  | CardsMovedEvent
   | CardDeletedEvent
   | ListCreatedEvent
-  | ListDeletedEvent;
+  | ListDeletedEvent
+  | ResyncRequiredEvent;
 
 export type BoardEventType = AnyBoardEvent["type"];
+
+// Ephemeral, on /topic/boards/{id}/presence; not part of the revisioned event stream.
+export type PresenceEntry = {
+  clientId: string;
+  userId: string;
+  x: number | null;
+  y: number | null;
+  draggingCardId: string | null;
+};
+
+// A snapshot replaces everything (you is this connection's clientId); otherwise only what changed.
+export type PresenceFrame = {
+  boardId: string;
+  snapshot: boolean;
+  you: string | null;
+  present: PresenceEntry[];
+  left: string[];
+};
+
+export type PresenceUpdate = {
+  x: number | null;
+  y: number | null;
+  draggingCardId: string | null;
+};
+
+// One board on the /user/queue/boards dashboard stream.
+export type BoardSummary = {
+  boardId: string;
+  name: string;
+  revision: number;
+  cardCount: number;
+  lastActivityAt: string | null;
+};
+
+// A snapshot lists every board of the user; otherwise the boards that changed and the ones they left.
+export type DashboardFrame = {
+  snapshot: boolean;
+  boards: BoardSummary[];
+  removed: string[];
+};
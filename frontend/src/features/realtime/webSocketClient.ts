@@ -1,35 +1,165 @@
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import { getAccessToken } from '../../api/http';
+import { ApiError, getAccessToken } from '../../api/http';
+import type { DashboardFrame, PresenceUpdate } from './types';
 
 type Unsub = () => void;
 
+// Card commands sent over the board connection (see sendCardCommand), waiting for their reply.
+type PendingCommand = {
+    resolve: (card: any) => void;
+    reject: (e: unknown) => void;
+    timer: ReturnType<typeof setTimeout>;
+};
+
+type CardCommandResult = {
+    commandId: string | null;
+    status: number;
+    card: unknown;
+    error: any;
+};
+
+const COMMAND_TIMEOUT_MS = 10000;
+const RECONNECT_DELAY_MS = 2000;
+
+// A busy server turns CONNECT/SUBSCRIBE away with an ERROR frame saying when to come back (retry-after, ms).
+const backOffOnError = (client: Client, headers: Record<string, string>) => {
+    const retryAfter = Number(headers["retry-after"]);
+    if (retryAfter > 0) client.reconnectDelay = retryAfter;
+}
+
+let commandClient: Client | null = null;
+const pendingCommands = new Map<string, PendingCommand>();
+
+const onCommandResult = (raw: string) => {
+    const result = JSON.parse(raw) as CardCommandResult;
+    const pending = result.commandId ? pendingCommands.get(result.commandId) : undefined;
+    if (!pending) return;
+
+    pendingCommands.delete(result.commandId!);
+    clearTimeout(pending.timer);
+
+    if (result.status === 200) pending.resolve(result.card);
+    else pending.reject(new ApiError(result.status, result.error?.message ?? "Command failed", result.error));
+}
+
+/**
+ * Sends a card command (e.g. `/app/cards/{id}/move`) over the open board connection and resolves with
+ * the server's reply, same result and errors as the REST call. Returns null when no connection is up,
+ * so callers can fall back to REST.
+ */
+export const sendCardCommand = <T>(destination: string, body: unknown): Promise<T> | null => {
+    const client = commandClient;
+    if (!client?.connected) return null;
+
+    const commandId = crypto.randomUUID();
+
+    return new Promise<T>((resolve, reject) => {
+        const timer = setTimeout(() => {
+            pendingCommands.delete(commandId);
+            reject(new ApiError(504, "No reply to card command", null));
+        }, COMMAND_TIMEOUT_MS);
+
+        pendingCommands.set(commandId, { resolve, reject, timer });
+        client.publish({ destination, body: JSON.stringify(body), headers: { "command-id": commandId } });
+    });
+}
+
+/**
+ * Replaces this connection's presence on the board (pointer, dragged card). Best effort: dropped when no
+ * connection is up. The server relays at most a few updates a second per sender, so sending more is wasted.
+ */
+export const sendPresence = (boardId: string, update: PresenceUpdate) => {
+    const client = commandClient;
+    if (!client?.connected) return;
+
+    client.publish({ destination: `/app/boards/${boardId}/presence`, body: JSON.stringify(update) });
+}
+
+/**
+ * The SUBSCRIBE filter header for a filtered board view, or null when nothing is filtered. The server then
+ * only sends events about matching cards, and marks each frame with the revisions it accounts for (covers-from).
+ */
+export const boardFilterSpec = (filter: { lists?: string[]; assignees?: string[]; priorities?: string[] }): string | null => {
+    const parts: string[] = [];
+    if (filter.lists?.length) parts.push(`lists=${filter.lists.join(",")}`);
+    if (filter.assignees?.length) parts.push(`assignees=${filter.assignees.join(",")}`);
+    if (filter.priorities?.length) parts.push(`priorities=${filter.priorities.join(",")}`);
+    return parts.length ? parts.join(";") : null;
+}
+
 export const subscribeToBoardTopic = (params: {
     baseURL: string;
     boardId: string;
-    onMessage: (rawJson: string) => void;
+    onMessage: (rawJson: string, headers: Record<string, string>) => void;
+    onPresence?: (rawJson: string) => void;
     onStatus?: (s: string) => void;
+    // Read on every (re)connect, e.g. the last-revision to resume from.
+    subscribeHeaders?: () => Record<string, string>;
 }): Unsub => {
-    const { baseURL, boardId, onMessage, onStatus } = params;
+    const { baseURL, boardId, onMessage, onPresence, onStatus, subscribeHeaders } = params;
 
     const token = getAccessToken();
 
     const client = new Client({
         webSocketFactory: () => new SockJS(`${baseURL}/ws`),
         connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
-        reconnectDelay: 2000,
+        reconnectDelay: RECONNECT_DELAY_MS,
         debug: () => {},
         onConnect: () => {
+            client.reconnectDelay = RECONNECT_DELAY_MS;
             onStatus?.("connected");
-            client.subscribe(`/topic/boards/${boardId}`, (msg) => onMessage(msg.body));
+            client.subscribe(`/topic/boards/${boardId}`, (msg) => onMessage(msg.body, msg.headers), subscribeHeaders?.() ?? {});
+            client.subscribe("/user/queue/cards", (msg) => onCommandResult(msg.body));
+            if (onPresence) client.subscribe(`/topic/boards/${boardId}/presence`, (msg) => onPresence(msg.body));
+            commandClient = client;
         },
         onDisconnect: () => onStatus?.("disconnected"),
-        onStompError: () => onStatus?.("stomp_error"),
+        onStompError: (frame) => {
+            backOffOnError(client, frame.headers);
+            onStatus?.("stomp_error");
+        },
         onWebSocketClose: () => onStatus?.("closed")
     });
 
     client.activate();
 
+    return () => {
+        if (commandClient === client) commandClient = null;
+
+        try {
+            client.deactivate();
+        } catch {
+
+        }
+    }
+}
+/**
+ * The user's dashboard: one subscription for a summary of all their boards (card count, last activity),
+ * however many boards they have. The first frame after every (re)connect is a snapshot.
+ */
+export const subscribeToDashboard = (params: {
+    baseURL: string;
+    onFrame: (frame: DashboardFrame) => void;
+}): Unsub => {
+    const { baseURL, onFrame } = params;
+
+    const token = getAccessToken();
+
+    const client = new Client({
+        webSocketFactory: () => new SockJS(`${baseURL}/ws`),
+        connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
+        reconnectDelay: RECONNECT_DELAY_MS,
+        debug: () => {},
+        onStompError: (frame) => backOffOnError(client, frame.headers),
+        onConnect: () => {
+            client.reconnectDelay = RECONNECT_DELAY_MS;
+            client.subscribe("/user/queue/boards", (msg) => onFrame(JSON.parse(msg.body) as DashboardFrame));
+        }
+    });
+
+    client.activate();
+
     return () => {
         try {
             client.deactivate();
@@ -37,4 +167,4 @@ export const subscribeToBoardTopic = (params: {
 
         }
     }
-}
\ No newline at end of file
+}
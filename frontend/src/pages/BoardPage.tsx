@@ -2,6 +2,7 @@ import {
   Alert,
   Box,
   Button,
+  Chip,
   Dialog,
   DialogActions,
   DialogContent,
@@ -10,6 +11,7 @@ import {
   IconButton,
   Menu,
   MenuItem,
+  TextField,
   Snackbar,
   Tab,
   Tabs,
@@ -22,11 +24,14 @@ import useBoardSnapshot from "../features/board/hooks/useBoardSnapshot";
 import BoardTemplate from "../components/templates/BoardTemplate";
 import ListsRow from "../components/organisms/ListsRow";
 import ListColumn from "../components/organisms/ListColumn";
-import { useEffect, useMemo, useState } from "react";
+import { useEffect, useMemo, useRef, useState } from "react";
 import EmptyCards from "../components/molecules/EmptyCard";
 import { createList, deleteList } from "../api/lists";
 import { getApiErrorMessage } from "../api/errors";
-import { createCard, deleteCard, moveCard, updateCard, type CardPriority } from "../api/cards";
+import { ApiError } from "../api/http";
+import { createCard, deleteCard, moveCard, updateCard, type CardPriority, type CardResponse, type MoveCardRequest } from "../api/cards";
+import { boardFilterSpec, sendCardCommand, sendPresence } from "../features/realtime/webSocketClient";
+import type { PresenceUpdate } from "../features/realtime/types";
 import {
   applyLatestCard,
   optimisticDeleteCard,
@@ -35,7 +40,7 @@ import {
 } from "../features/board/reducer/optimistic";
 import { isConflictError, type ConflictResponse } from "../api/conflicts";
 import type { BoardSnapshot, Card } from "../features/board/types";
-import { closestCenter, DndContext, type DragEndEvent } from "@dnd-kit/core";
+import { closestCenter, DndContext, type DragEndEvent, type DragMoveEvent, type DragStartEvent } from "@dnd-kit/core";
 import { SortableContext, verticalListSortingStrategy } from "@dnd-kit/sortable";
 import DraggableCard from "../components/molecules/DraggableCard";
 import CardPreview from "../components/molecules/CardPreview";
@@ -48,11 +53,39 @@ import EditCardDialog from "../components/organisms/EditCardDialog";
 import CardDetailsDialog from "../components/organisms/CardDetailsDialog";
 import CreateCardDialog from "../components/organisms/CreateCardDialog";
 
+// Presence: keep-alive interval (the server drops us after 30s of silence) and the most we send while dragging.
+const PRESENCE_HEARTBEAT_MS = 10000;
+const PRESENCE_MIN_INTERVAL_MS = 100;
+
+const PRIORITIES: CardPriority[] = ["HIGH", "MEDIUM", "LOW"];
+
 const BoardPage = () => {
   const { boardId } = useParams();
   const nav = useNavigate();
 
-  const { data, loading, error, reload, setData } = useBoardSnapshot(boardId);
+  // --- view filter (also sent to the server, which then only streams matching cards) ---
+  const [assigneeFilter, setAssigneeFilter] = useState<string>("");
+  const [priorityFilter, setPriorityFilter] = useState<CardPriority[]>([]);
+
+  const filterSpec = useMemo(
+    () => boardFilterSpec({ assignees: assigneeFilter ? [assigneeFilter] : [], priorities: priorityFilter }),
+    [assigneeFilter, priorityFilter]
+  );
+
+  const { data, loading, error, reload, setData, presence } = useBoardSnapshot(boardId, filterSpec);
+
+  const visibleCards = (listId: string) => {
+    const cards = data?.cardsByListId[listId] ?? [];
+    if (!filterSpec) return cards;
+
+    return cards.filter((c) =>
+      (!assigneeFilter || c.assigneeUserId === assigneeFilter) &&
+      (!priorityFilter.length || priorityFilter.includes(c.priority))
+    );
+  };
+
+  const togglePriority = (p: CardPriority) =>
+    setPriorityFilter((prev) => (prev.includes(p) ? prev.filter((x) => x !== p) : [...prev, p]));
 
   const [selectedCardId, setSelectedCardId] = useState<string | null>(null);
   const [editOpen, setEditOpen] = useState(false);
@@ -130,6 +163,44 @@ const BoardPage = () => {
     return m;
   }, [members]);
 
+  // --- presence (other viewers, what they drag) ---
+  const myPresenceRef = useRef<PresenceUpdate>({ x: null, y: null, draggingCardId: null });
+  const presenceSentAtRef = useRef(0);
+  const boardAreaRef = useRef<HTMLDivElement | null>(null);
+
+  const publishPresence = (update: PresenceUpdate, force: boolean) => {
+    myPresenceRef.current = update;
+    if (!boardId) return;
+
+    const now = Date.now();
+    if (!force && now - presenceSentAtRef.current < PRESENCE_MIN_INTERVAL_MS) return;
+
+    presenceSentAtRef.current = now;
+    sendPresence(boardId, update);
+  };
+
+  useEffect(() => {
+    if (!boardId) return;
+
+    myPresenceRef.current = { x: null, y: null, draggingCardId: null };
+    const timer = setInterval(() => sendPresence(boardId, myPresenceRef.current), PRESENCE_HEARTBEAT_MS);
+    return () => clearInterval(timer);
+  }, [boardId]);
+
+  const viewerNames = useMemo(() => {
+    const names = new Set<string>();
+    for (const p of presence.values()) names.add(nameByUserId.get(p.userId) ?? "Someone");
+    return [...names];
+  }, [presence, nameByUserId]);
+
+  const draggedBy = useMemo(() => {
+    const m = new Map<string, string>();
+    for (const p of presence.values()) {
+      if (p.draggingCardId) m.set(p.draggingCardId, nameByUserId.get(p.userId) ?? "Someone");
+    }
+    return m;
+  }, [presence, nameByUserId]);
+
   // --- selected card ---
   const selectedCard = useMemo(() => {
     if (!data || !selectedCardId) return null;
@@ -196,15 +267,31 @@ const BoardPage = () => {
     const { next } = optimisticMoveCard(before, cardId, toListId, toPosition);
     setData(next);
 
+    // Send the neighbours the card landed between, not the index: the server resolves them
+    // under its list lock, so concurrent drags elsewhere in the list don't shift the target.
+    const destCards = next.cardsByListId[toListId] ?? [];
+    const landedAt = destCards.findIndex((c) => c.id === cardId);
+
+    const request: MoveCardRequest = {
+      toListId,
+      beforeCardId: landedAt > 0 ? destCards[landedAt - 1].id : null,
+      afterCardId: landedAt !== -1 && landedAt + 1 < destCards.length ? destCards[landedAt + 1].id : null,
+      expectedVersion: movingCard.version,
+    };
+
     try {
-      const moved = await moveCard(cardId, {
-        toListId,
-        toPosition,
-        expectedVersion: movingCard.version,
-      });
+      // Over the open board connection when there is one; REST otherwise.
+      const moved = await (sendCardCommand<CardResponse>(`/app/cards/${cardId}/move`, request) ?? moveCard(cardId, request));
 
       setData((prev) => (prev ? applyLatestCard(prev, moved as any) : prev));
     } catch (e: any) {
+      if (e instanceof ApiError && e.status === 409 && e.body?.latest) {
+        const conflict = e.body as ConflictResponse<Card>;
+        setToast(conflict.message || "Updated elsewhere");
+        setData((prev) => (prev ? applyLatestCard(prev, conflict.latest as any) : prev));
+        return;
+      }
+
       if (isConflictError(e)) {
         const conflict = e.response.data as ConflictResponse<Card>;
         setToast(conflict.message || "Updated elsewhere");
@@ -217,7 +304,31 @@ const BoardPage = () => {
     }
   };
 
+  const onDragStart = (e: DragStartEvent) => {
+    const activeData = e.active.data.current as any;
+    if (activeData?.type !== "CARD") return;
+
+    publishPresence({ ...myPresenceRef.current, draggingCardId: activeData.cardId as string }, true);
+  };
+
+  // Pointer position relative to the board area, so it means the same spot to everyone.
+  const onDragMove = (e: DragMoveEvent) => {
+    const area = boardAreaRef.current;
+    const start = e.activatorEvent as PointerEvent;
+    if (!area || typeof start?.clientX !== "number") return;
+
+    const rect = area.getBoundingClientRect();
+    publishPresence({
+      ...myPresenceRef.current,
+      x: start.clientX + e.delta.x - rect.left + area.scrollLeft,
+      y: start.clientY + e.delta.y - rect.top + area.scrollTop,
+    }, false);
+  };
+
+  const onDragCancel = () => publishPresence({ x: null, y: null, draggingCardId: null }, true);
+
   const onDragEnd = (e: DragEndEvent) => {
+    publishPresence({ x: null, y: null, draggingCardId: null }, true);
     if (!data) return;
 
     const { active, over } = e;
@@ -397,16 +508,58 @@ const BoardPage = () => {
 
             {tab === 1 && <BoardMembersPanel boardId={boardId} myRole={myRole} onToast={setToast} />}
             {isOwner && tab === 2 && <BoardInvitesPanel boardId={boardId} onToast={setToast} />}
+
+            {tab === 0 && (
+              <Box sx={{ display: "flex", alignItems: "center", gap: 1, mb: 1, flexWrap: "wrap" }}>
+                <TextField
+                  select
+                  size="small"
+                  label="Assignee"
+                  value={assigneeFilter}
+                  onChange={(e) => setAssigneeFilter(e.target.value)}
+                  sx={{ minWidth: 180 }}
+                >
+                  <MenuItem value="">Anyone</MenuItem>
+                  {members.map((m) => (
+                    <MenuItem key={m.userId} value={m.userId}>{nameByUserId.get(m.userId)}</MenuItem>
+                  ))}
+                </TextField>
+
+                {PRIORITIES.map((p) => (
+                  <Chip
+                    key={p}
+                    size="small"
+                    label={p}
+                    variant={priorityFilter.includes(p) ? "filled" : "outlined"}
+                    color={priorityFilter.includes(p) ? "primary" : "default"}
+                    onClick={() => togglePriority(p)}
+                  />
+                ))}
+              </Box>
+            )}
+
+            {tab === 0 && viewerNames.length > 0 && (
+              <Box sx={{ display: "flex", alignItems: "center", gap: 1, mb: 1, flexWrap: "wrap" }}>
+                <Typography variant="caption" color="text.secondary">Also here:</Typography>
+                {viewerNames.map((name) => <Chip key={name} size="small" label={name} />)}
+              </Box>
+            )}
           </>
         )}
 
         {tab === 0 && data && (
           canWrite ? (
-            <DndContext collisionDetection={closestCenter} onDragEnd={onDragEnd}>
-              <Box sx={{ position: "relative", height: "100%" }}>
+            <DndContext
+              collisionDetection={closestCenter}
+              onDragStart={onDragStart}
+              onDragMove={onDragMove}
+              onDragCancel={onDragCancel}
+              onDragEnd={onDragEnd}
+            >
+              <Box ref={boardAreaRef} sx={{ position: "relative", height: "100%" }}>
                 <ListsRow onAddList={handleAddList}>
                   {data.lists.map((list) => {
-                    const cards = data.cardsByListId[list.id] ?? [];
+                    const cards = visibleCards(list.id);
                     const cardIds = cards.map((c) => c.id);
 
                     const subtitle =
@@ -434,6 +587,7 @@ const BoardPage = () => {
                                 description={c.description}
                                 priority={c.priority}
                                 dueDate={c.dueDate}
+                                draggedBy={draggedBy.get(c.id) ?? null}
                                 onClick={() => {
                                   setSelectedCardId(c.id);
                                   setEditOpen(false);
@@ -455,12 +609,24 @@ const BoardPage = () => {
                     );
                   })}
                 </ListsRow>
+
+                {[...presence.values()]
+                  .filter((p) => p.draggingCardId && p.x != null && p.y != null)
+                  .map((p) => (
+                    <Chip
+                      key={p.clientId}
+                      size="small"
+                      color="secondary"
+                      label={nameByUserId.get(p.userId) ?? "Someone"}
+                      sx={{ position: "absolute", left: p.x!, top: p.y!, pointerEvents: "none", zIndex: 10 }}
+                    />
+                  ))}
               </Box>
             </DndContext>
           ) : (
             <ListsRow>
               {data.lists.map((list) => {
-                const cards = data.cardsByListId[list.id] ?? [];
+                const cards = visibleCards(list.id);
 
                 return (
                   <ListColumn key={list.id} listId={list.id} title={list.name} subtitle={`pos ${list.position}`}>
@@ -12,14 +12,19 @@ import {
 } from "@mui/material";
 import AppShellTemplate from "../components/templates/AppShellTemplate";
 import { Link, useNavigate } from "react-router-dom";
-import { useEffect, useMemo, useState } from "react";
+import { useEffect, useMemo, useRef, useState } from "react";
 import { type BoardResponse, createBoard, listBoards } from "../api/boards";
 import { ApiError } from "../api/http";
+import { subscribeToDashboard } from "../features/realtime/webSocketClient";
+import type { BoardSummary, DashboardFrame } from "../features/realtime/types";
+
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL ?? "http://localhost:8080";
 
 const HomePage = () => {
   const nav = useNavigate();
 
   const [boards, setBoards] = useState<BoardResponse[]>([]);
+  const [summaries, setSummaries] = useState<Map<string, BoardSummary>>(new Map());
   const [newBoardName, setNewBoardName] = useState("My board");
 
   const [tab, setTab] = useState<0 | 1>(0); // 0: boards, 1: create
@@ -28,12 +33,16 @@ const HomePage = () => {
   const [error, setError] = useState<string | null>(null);
   const [busy, setBusy] = useState(false);
 
+  // Set once the first list arrived; dashboard frames before that have nothing to compare against.
+  const loadedRef = useRef(false);
+
   const load = async () => {
     setError(null);
     try {
       setBusy(true);
       const res = await listBoards();
       setBoards(res);
+      loadedRef.current = true;
     } catch (e: unknown) {
       if (e instanceof ApiError && e.status === 401) {
         window.location.href = "/login";
@@ -50,6 +59,33 @@ const HomePage = () => {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
+  const boardIdsRef = useRef<Set<string>>(new Set());
+  useEffect(() => {
+    boardIdsRef.current = new Set(boards.map((b) => b.id));
+  }, [boards]);
+
+  // Live card counts and activity for all boards over one subscription; a board we don't list yet
+  // (e.g. an invite was accepted elsewhere) reloads the list.
+  useEffect(() => {
+    const onFrame = (frame: DashboardFrame) => {
+      setSummaries((prev) => {
+        const next = frame.snapshot ? new Map<string, BoardSummary>() : new Map(prev);
+        for (const summary of frame.boards) next.set(summary.boardId, summary);
+        for (const boardId of frame.removed) next.delete(boardId);
+        return next;
+      });
+
+      if (frame.removed.length) {
+        setBoards((prev) => prev.filter((b) => !frame.removed.includes(b.id)));
+      }
+
+      if (loadedRef.current && frame.boards.some((s) => !boardIdsRef.current.has(s.boardId))) load();
+    };
+
+    return subscribeToDashboard({ baseURL: API_BASE_URL, onFrame });
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
   const filtered = useMemo(() => {
     const q = query.trim().toLowerCase();
     if (!q) return boards;
@@ -180,6 +216,14 @@ const HomePage = () => {
                           </Typography>
                           <Typography variant="caption" color="text.secondary" noWrap>
                             Owner: {b.ownerName ?? "—"}
+                            {summaries.has(b.id) && (
+                              <>
+                                {" · "}
+                                {summaries.get(b.id)!.cardCount} cards
+                                {summaries.get(b.id)!.lastActivityAt &&
+                                  ` · Last activity ${new Date(summaries.get(b.id)!.lastActivityAt!).toLocaleString()}`}
+                              </>
+                            )}
                           </Typography>
                         </Box>
 